@@ -0,0 +1,87 @@
+package com.jurix.ai.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the flat cosine scan in {@link ArticleVectorStore#search} over a
+ * memory-mapped file of 100,000 article vectors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx512m"})
+public class ArticleVectorStoreBenchmark {
+
+    @Param({"100000"})
+    private int vectors;
+
+    @Param({"384", "768"})
+    private int dimension;
+
+    private File directory;
+    private ArticleVectorStore store;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jurix-vectors").toFile();
+        // Only the mapped file is used; the Jira and backend collaborators stay unset.
+        store = new ArticleVectorStore(null, null, null, null, null);
+        store.open(new File(directory, ArticleVectorStore.FILE_NAME));
+
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < vectors; i++) {
+            store.put("BENCH-" + i, now, randomVector(random));
+        }
+        queries = new float[64][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = randomVector(random);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.destroy();
+        File file = new File(directory, ArticleVectorStore.FILE_NAME);
+        file.delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public Map<String, Float> searchTop10() {
+        // search() normalizes the query in place, so hand it a copy.
+        float[] query = queries[next++ & (queries.length - 1)].clone();
+        return store.search(query, null, 10);
+    }
+
+    private float[] randomVector(Random random) {
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,152 @@
+package com.jurix.ai.service;
+
+import com.jurix.ai.service.DashboardUpdateService.UpdateEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write and "updates since" throughput of {@link UpdateRingBuffer}, alone and with
+ * writers and readers running against the same project buffer. The {@code baseline*}
+ * benchmarks run the same workloads against the synchronized list the buffer replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateRingBufferBenchmark {
+
+    @Param({"100", "10000"})
+    private int capacity;
+
+    private UpdateRingBuffer buffer;
+    private UpdateEvent event;
+    private long recentTimestamp;
+
+    @Setup
+    public void setUp() {
+        buffer = new UpdateRingBuffer(capacity);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < capacity; i++) {
+            buffer.add(new UpdateEvent("BENCH-" + i, "In Progress", "issue_updated", now - capacity + i));
+        }
+        // Roughly what a poller that is a few events behind asks for.
+        recentTimestamp = now - 5;
+        event = new UpdateEvent("BENCH-1", "In Progress", "issue_updated", now);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UpdateEvent add() {
+        return buffer.add(event);
+    }
+
+    @Benchmark
+    public List<UpdateEvent> sinceRecent() {
+        return buffer.since(recentTimestamp);
+    }
+
+    @Benchmark
+    public List<UpdateEvent> snapshot() {
+        return buffer.snapshot();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public UpdateEvent mixedAdd() {
+        return buffer.add(event);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<UpdateEvent> mixedSince() {
+        return buffer.since(recentTimestamp);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UpdateEvent baselineAdd(SynchronizedListState list) {
+        return list.add(event);
+    }
+
+    @Benchmark
+    public List<UpdateEvent> baselineSinceRecent(SynchronizedListState list) {
+        return list.since(recentTimestamp);
+    }
+
+    @Benchmark
+    @Group("baselineMixed")
+    @GroupThreads(3)
+    public UpdateEvent baselineMixedAdd(SynchronizedListState list) {
+        return list.add(event);
+    }
+
+    @Benchmark
+    @Group("baselineMixed")
+    @GroupThreads(1)
+    public List<UpdateEvent> baselineMixedSince(SynchronizedListState list) {
+        return list.since(recentTimestamp);
+    }
+
+    /**
+     * The per-project history before the ring buffer: newest first, trimmed after each add,
+     * filtered with a stream on read.
+     */
+    @State(Scope.Benchmark)
+    public static class SynchronizedListState {
+
+        private int capacity;
+        private List<UpdateEvent> updates;
+
+        @Setup
+        public void setUp(BenchmarkParams params) {
+            // Same capacity as the ring buffer in this run.
+            capacity = Integer.parseInt(params.getParam("capacity"));
+            updates = Collections.synchronizedList(new ArrayList<>());
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < capacity; i++) {
+                updates.add(0, new UpdateEvent("BENCH-" + i, "In Progress", "issue_updated", now - capacity + i));
+            }
+        }
+
+        UpdateEvent add(UpdateEvent event) {
+            updates.add(0, event);
+            if (updates.size() > capacity) {
+                updates.subList(capacity, updates.size()).clear();
+            }
+            return event;
+        }
+
+        List<UpdateEvent> since(long sinceTimestamp) {
+            // The old code streamed without the lock and could fail under concurrent writes;
+            // hold it here so the mixed run measures the list rather than its exceptions.
+            synchronized (updates) {
+                return updates.stream()
+                    .filter(update -> update.timestamp > sinceTimestamp)
+                    .collect(Collectors.toList());
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.jurix.ai.ao;
+
+import net.java.ao.Entity;
+import net.java.ao.Preload;
+import net.java.ao.schema.Indexed;
+import net.java.ao.schema.StringLength;
+import net.java.ao.schema.Table;
+
+@Preload
+@Table("AI_ARTICLE_JOB")
+public interface ArticleGenerationJob extends Entity {
+    @Indexed
+    String getIssueKey();
+    void setIssueKey(String issueKey);
+
+    String getTriggerType();
+    void setTriggerType(String triggerType);
+
+    Integer getPriority();
+    void setPriority(Integer priority);
+
+    @Indexed
+    String getStatus();
+    void setStatus(String status);
+
+    // Cluster node running the job; set together with RUNNING.
+    @Indexed
+    String getOwner();
+    void setOwner(String owner);
+
+    Integer getAttempts();
+    void setAttempts(Integer attempts);
+
+    @StringLength(StringLength.UNLIMITED)
+    String getError();
+    void setError(String error);
+
+    Long getCreatedAt();
+    void setCreatedAt(Long createdAt);
+
+    Long getStartedAt();
+    void setStartedAt(Long startedAt);
+
+    Long getFinishedAt();
+    void setFinishedAt(Long finishedAt);
+}
@@ -4,10 +4,12 @@ import net.java.ao.Entity;
 import net.java.ao.Preload;
 import net.java.ao.schema.StringLength;
 import net.java.ao.schema.Table;
+import net.java.ao.schema.Unique;
 
 @Preload
 @Table("AI_GENERATED_ARTICLE")
 public interface GeneratedArticle extends Entity {
+    @Unique
     String getIssueKey();
     void setIssueKey(String issueKey);
     
@@ -21,6 +23,17 @@ public interface GeneratedArticle extends Entity {
     String getStatus();
     void setStatus(String status);
     
+    @StringLength(StringLength.UNLIMITED)
+    String getError();
+    void setError(String error);
+    
+    // Fencing token and lease store of the generation lease that last wrote the row.
+    Long getFenceToken();
+    void setFenceToken(Long fenceToken);
+    
+    String getFenceStore();
+    void setFenceStore(String fenceStore);
+    
     Long getCreatedAt();
     void setCreatedAt(Long createdAt);
     
@@ -0,0 +1,27 @@
+package com.jurix.ai.ao;
+
+import net.java.ao.Entity;
+import net.java.ao.Preload;
+import net.java.ao.schema.Indexed;
+import net.java.ao.schema.NotNull;
+import net.java.ao.schema.Table;
+import net.java.ao.schema.Unique;
+
+@Preload
+@Table("AI_LEASE")
+public interface LeaseRecord extends Entity {
+    @NotNull
+    @Unique
+    String getLeaseKey();
+    void setLeaseKey(String leaseKey);
+
+    String getOwner();
+    void setOwner(String owner);
+
+    Long getAcquiredAt();
+    void setAcquiredAt(Long acquiredAt);
+
+    @Indexed
+    Long getExpiresAt();
+    void setExpiresAt(Long expiresAt);
+}
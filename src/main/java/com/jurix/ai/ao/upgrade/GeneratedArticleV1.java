@@ -0,0 +1,14 @@
+package com.jurix.ai.ao.upgrade;
+
+import net.java.ao.Entity;
+import net.java.ao.schema.Table;
+
+/**
+ * AI_GENERATED_ARTICLE as it was before ISSUE_KEY became unique. Only used by
+ * {@link UniqueArticleKeyUpgradeTask}.
+ */
+@Table("AI_GENERATED_ARTICLE")
+public interface GeneratedArticleV1 extends Entity {
+    String getIssueKey();
+    void setIssueKey(String issueKey);
+}
@@ -0,0 +1,42 @@
+package com.jurix.ai.ao.upgrade;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.atlassian.activeobjects.external.ActiveObjectsUpgradeTask;
+import com.atlassian.activeobjects.external.ModelVersion;
+import net.java.ao.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Removes duplicate AI_GENERATED_ARTICLE rows before the unique constraint on ISSUE_KEY is
+ * created. Concurrent first saves could insert two rows for one issue; the newest one (the
+ * row readers already used) is kept.
+ */
+public class UniqueArticleKeyUpgradeTask implements ActiveObjectsUpgradeTask {
+    private static final Logger log = LoggerFactory.getLogger(UniqueArticleKeyUpgradeTask.class);
+
+    @Override
+    public ModelVersion getModelVersion() {
+        return ModelVersion.valueOf("1");
+    }
+
+    @Override
+    public void upgrade(ModelVersion currentVersion, ActiveObjects ao) {
+        ao.migrate(GeneratedArticleV1.class);
+
+        Set<String> seen = new HashSet<>();
+        int removed = 0;
+        for (GeneratedArticleV1 row : ao.find(GeneratedArticleV1.class, Query.select().order("ISSUE_KEY ASC, ID DESC"))) {
+            if (!seen.add(row.getIssueKey())) {
+                ao.delete(row);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} duplicate generated article rows", removed);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jurix.ai.api;
+
+import com.jurix.ai.config.JurixConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of concurrent in-flight backend calls per endpoint. Callers that find
+ * the endpoint saturated are rejected immediately instead of queueing, so a slow LLM
+ * pipeline cannot pile up request threads or parked async requests without bound.
+ * Limits are read from plugin settings on every acquire and can be changed at runtime.
+ */
+@Named
+public class BackendCallLimiter {
+    private static final Logger log = LoggerFactory.getLogger(BackendCallLimiter.class);
+
+    private static final int DEFAULT_LIMIT = 32;
+    private static final Map<BackendGateway.Endpoint, Integer> DEFAULT_LIMITS = new EnumMap<>(BackendGateway.Endpoint.class);
+
+    static {
+        DEFAULT_LIMITS.put(BackendGateway.Endpoint.CHAT, 16);
+        DEFAULT_LIMITS.put(BackendGateway.Endpoint.FORECAST, 8);
+        DEFAULT_LIMITS.put(BackendGateway.Endpoint.SUGGESTIONS, 16);
+    }
+
+    private final JurixConfiguration configuration;
+    private final Map<BackendGateway.Endpoint, AtomicInteger> inFlight = new EnumMap<>(BackendGateway.Endpoint.class);
+    private final Map<BackendGateway.Endpoint, AtomicLong> rejected = new EnumMap<>(BackendGateway.Endpoint.class);
+
+    @Inject
+    public BackendCallLimiter(JurixConfiguration configuration) {
+        this.configuration = configuration;
+        for (BackendGateway.Endpoint endpoint : BackendGateway.Endpoint.values()) {
+            inFlight.put(endpoint, new AtomicInteger());
+            rejected.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public boolean tryAcquire(BackendGateway.Endpoint endpoint) {
+        int limit = getLimit(endpoint);
+        AtomicInteger counter = inFlight.get(endpoint);
+        while (true) {
+            int current = counter.get();
+            if (current >= limit) {
+                rejected.get(endpoint).incrementAndGet();
+                log.warn("Rejecting {} call: {} of {} slots in use", endpoint, current, limit);
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(BackendGateway.Endpoint endpoint) {
+        inFlight.get(endpoint).decrementAndGet();
+    }
+
+    public int getLimit(BackendGateway.Endpoint endpoint) {
+        int defaultLimit = DEFAULT_LIMITS.getOrDefault(endpoint, DEFAULT_LIMIT);
+        return Math.max(1, configuration.getBackendMaxInFlight(endpoint.name().toLowerCase(), defaultLimit));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (BackendGateway.Endpoint endpoint : DEFAULT_LIMITS.keySet()) {
+            Map<String, Object> endpointInfo = new LinkedHashMap<>();
+            endpointInfo.put("inFlight", inFlight.get(endpoint).get());
+            endpointInfo.put("limit", getLimit(endpoint));
+            endpointInfo.put("rejected", rejected.get(endpoint).get());
+            result.put(endpoint.name(), endpointInfo);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,217 @@
+package com.jurix.ai.api;
+
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.util.NamedThreadFactory;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single entry point for every HTTP call from the plugin to the Python backend.
+ * All endpoints share one connection pool and one dispatcher so that keep-alive
+ * connections to the backend are reused across controllers; each endpoint only
+ * differs in its timeouts and gets its own call metrics.
+ */
+@Named
+public class BackendGateway implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(BackendGateway.class);
+
+    public static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private static final int MAX_IDLE_CONNECTIONS = 32;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int MAX_REQUESTS = 64;
+    private static final int MAX_REQUESTS_PER_HOST = 32;
+
+    public enum Endpoint {
+        HEALTH(5, 5),
+        CHAT(30, 120),
+        DASHBOARD(30, 180),
+        FORECAST(30, 120),
+        ARTICLE_GENERATE(30, 120),
+        ARTICLE_STATUS(30, 30),
+        ARTICLE_FEEDBACK(30, 120),
+        SUGGESTIONS(30, 30),
+        EMBEDDINGS(5, 10),
+        // Suggestion queries are embedded on the request thread, so they get little time.
+        EMBED_QUERY(1, 2),
+        NOTIFY_UPDATE(10, 30);
+
+        private final int connectTimeoutSeconds;
+        private final int readTimeoutSeconds;
+
+        Endpoint(int connectTimeoutSeconds, int readTimeoutSeconds) {
+            this.connectTimeoutSeconds = connectTimeoutSeconds;
+            this.readTimeoutSeconds = readTimeoutSeconds;
+        }
+
+        public int getConnectTimeoutSeconds() { return connectTimeoutSeconds; }
+        public int getReadTimeoutSeconds() { return readTimeoutSeconds; }
+    }
+
+    private final JurixConfiguration configuration;
+    private final ConnectionPool connectionPool;
+    private final Dispatcher dispatcher;
+    private final Map<Endpoint, OkHttpClient> clients = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, EndpointMetrics> metrics = new EnumMap<>(Endpoint.class);
+
+    @Inject
+    public BackendGateway(JurixConfiguration configuration) {
+        this.configuration = configuration;
+        this.connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+        this.dispatcher = new Dispatcher(new ThreadPoolExecutor(
+            0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new NamedThreadFactory("jurix-backend-dispatcher")));
+        this.dispatcher.setMaxRequests(MAX_REQUESTS);
+        this.dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        OkHttpClient base = new OkHttpClient.Builder()
+            .connectionPool(connectionPool)
+            .dispatcher(dispatcher)
+            .protocols(Collections.singletonList(Protocol.HTTP_1_1))
+            .retryOnConnectionFailure(true)
+            .writeTimeout(30, TimeUnit.SECONDS)
+            .build();
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointMetrics endpointMetrics = new EndpointMetrics();
+            metrics.put(endpoint, endpointMetrics);
+            clients.put(endpoint, base.newBuilder()
+                .connectTimeout(endpoint.getConnectTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(endpoint.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .addInterceptor(metricsInterceptor(endpointMetrics))
+                .build());
+        }
+        log.info("BackendGateway initialized with {} endpoints", clients.size());
+    }
+
+    public String url(String path) {
+        return configuration.getBackendUrl() + path;
+    }
+
+    public Request get(String path) {
+        return new Request.Builder()
+            .url(url(path))
+            .get()
+            .addHeader("Accept", "application/json")
+            .build();
+    }
+
+    public Request postJson(String path, String json) {
+        return new Request.Builder()
+            .url(url(path))
+            .post(RequestBody.create(JSON, json != null ? json : ""))
+            .addHeader("Accept", "application/json")
+            .build();
+    }
+
+    public Call newCall(Endpoint endpoint, Request request) {
+        return clients.get(endpoint).newCall(request);
+    }
+
+    public Response execute(Endpoint endpoint, Request request) throws IOException {
+        return newCall(endpoint, request).execute();
+    }
+
+    public void enqueue(Endpoint endpoint, Request request, Callback callback) {
+        newCall(endpoint, request).enqueue(callback);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("backendUrl", configuration.getBackendUrl());
+        result.put("connections", connectionPool.connectionCount());
+        result.put("idleConnections", connectionPool.idleConnectionCount());
+        result.put("queuedCalls", dispatcher.queuedCallsCount());
+        result.put("runningCalls", dispatcher.runningCallsCount());
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Endpoint, EndpointMetrics> entry : metrics.entrySet()) {
+            Map<String, Object> endpointInfo = entry.getValue().snapshot();
+            endpointInfo.put("connectTimeoutSeconds", entry.getKey().getConnectTimeoutSeconds());
+            endpointInfo.put("readTimeoutSeconds", entry.getKey().getReadTimeoutSeconds());
+            endpoints.put(entry.getKey().name(), endpointInfo);
+        }
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.cancelAll();
+        dispatcher.executorService().shutdown();
+        connectionPool.evictAll();
+        log.info("BackendGateway shut down");
+    }
+
+    private static Interceptor metricsInterceptor(EndpointMetrics endpointMetrics) {
+        return chain -> {
+            endpointMetrics.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                Response response = chain.proceed(chain.request());
+                if (!response.isSuccessful()) {
+                    endpointMetrics.httpErrors.incrementAndGet();
+                }
+                return response;
+            } catch (IOException e) {
+                endpointMetrics.failures.incrementAndGet();
+                throw e;
+            } finally {
+                endpointMetrics.record(System.nanoTime() - start);
+                endpointMetrics.inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    private static class EndpointMetrics {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong httpErrors = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        void record(long nanos) {
+            calls.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            long count = calls.get();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("calls", count);
+            result.put("failures", failures.get());
+            result.put("httpErrors", httpErrors.get());
+            result.put("inFlight", inFlight.get());
+            result.put("avgMillis", count > 0 ? TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / count) : 0);
+            result.put("maxMillis", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.jurix.ai.api;
+
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Pass-through relay for endpoints that only forward the backend's JSON to the browser.
+ * The body is copied straight from the backend connection to the client through a small
+ * pool of fixed-size buffers, so a request costs the same memory whatever the payload
+ * size, and nothing is decoded or re-encoded on the way. When the client accepts gzip
+ * the backend is asked for gzip explicitly, which keeps OkHttp from decompressing it, and
+ * the compressed bytes go out unchanged with their Content-Encoding, Content-Length and
+ * ETag.
+ */
+@Named
+public class BackendProxy {
+    private static final Logger log = LoggerFactory.getLogger(BackendProxy.class);
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_POOLED_BUFFERS = 64;
+    private static final String[] FORWARDED_HEADERS = {
+        "Content-Type", "Content-Encoding", "Content-Length", "ETag", "Last-Modified", "Cache-Control", "Vary"
+    };
+
+    private final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
+    private final AtomicLong relayed = new AtomicLong();
+    private final AtomicLong gzipRelayed = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong bytesRelayed = new AtomicLong();
+    private final AtomicLong bufferAllocations = new AtomicLong();
+    private final AtomicLong aborted = new AtomicLong();
+
+    /**
+     * Adapts a backend request for pass-through. Asking for gzip or identity explicitly
+     * turns off OkHttp's transparent decompression, so the body and its length reach the
+     * client exactly as the backend sent them. {@code ifNoneMatch} is forwarded so the
+     * backend can answer 304 for an unchanged payload.
+     */
+    public Request prepare(Request request, String acceptEncoding, String ifNoneMatch) {
+        Request.Builder builder = request.newBuilder()
+            .header("Accept-Encoding", acceptsGzip(acceptEncoding) ? "gzip" : "identity");
+        if (ifNoneMatch != null && !ifNoneMatch.isEmpty()) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Whether the backend answer should be relayed as-is: any 2xx, or 304 for a
+     * conditional request.
+     */
+    public boolean isRelayable(okhttp3.Response backendResponse) {
+        return backendResponse.isSuccessful() || backendResponse.code() == HttpServletResponse.SC_NOT_MODIFIED;
+    }
+
+    /**
+     * Builds a JAX-RS response that streams the backend body to the client. The backend
+     * response is closed, and {@code onClose} run, once the body has been written.
+     */
+    public Response relay(okhttp3.Response backendResponse, Runnable onClose) {
+        return relay(backendResponse, onClose, null, 0);
+    }
+
+    /**
+     * Same as {@link #relay(okhttp3.Response, Runnable)}, and also hands a copy of a 200
+     * body to {@code capture} once it has been written in full, as long as it is no larger
+     * than {@code maxCaptureBytes}. Used to fill caches without buffering the relay itself.
+     */
+    public Response relay(okhttp3.Response backendResponse, Runnable onClose,
+                          Consumer<CapturedBody> capture, int maxCaptureBytes) {
+        Response.ResponseBuilder builder = Response.status(backendResponse.code());
+        Map<String, String> headers = forwardedHeaders(backendResponse);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        countRelay(backendResponse);
+
+        if (!hasBody(backendResponse)) {
+            // No entity means JAX-RS never calls the StreamingOutput, so clean up now.
+            try {
+                backendResponse.close();
+            } finally {
+                onClose.run();
+            }
+            return builder.build();
+        }
+
+        StreamingOutput body = output -> {
+            try (okhttp3.Response closeable = backendResponse) {
+                copy(closeable.body(), output, captureFor(closeable, headers, capture, maxCaptureBytes));
+            } finally {
+                onClose.run();
+            }
+        };
+        return builder.entity(body).build();
+    }
+
+    /**
+     * Serves a previously captured body. Answers 304 without a body when
+     * {@code ifNoneMatch} matches its ETag.
+     */
+    public Response replay(CapturedBody captured, String ifNoneMatch) {
+        boolean unchanged = captured.matches(ifNoneMatch);
+        Response.ResponseBuilder builder = unchanged
+            ? Response.notModified()
+            : Response.ok(captured.getBody());
+        for (Map.Entry<String, String> header : captured.getHeaders().entrySet()) {
+            if (!unchanged || !"Content-Length".equals(header.getKey())) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the backend status, forwarded headers and body to a servlet response. The
+     * caller still owns, and closes, the backend response.
+     */
+    public void relay(okhttp3.Response backendResponse, HttpServletResponse response) throws IOException {
+        relay(backendResponse, response, null, 0);
+    }
+
+    public void relay(okhttp3.Response backendResponse, HttpServletResponse response,
+                      Consumer<CapturedBody> capture, int maxCaptureBytes) throws IOException {
+        response.setStatus(backendResponse.code());
+        Map<String, String> headers = forwardedHeaders(backendResponse);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            response.setHeader(header.getKey(), header.getValue());
+        }
+        countRelay(backendResponse);
+        if (hasBody(backendResponse)) {
+            copy(backendResponse.body(), response.getOutputStream(),
+                captureFor(backendResponse, headers, capture, maxCaptureBytes));
+        }
+    }
+
+    public void replay(CapturedBody captured, String ifNoneMatch, HttpServletResponse response) throws IOException {
+        boolean unchanged = captured.matches(ifNoneMatch);
+        response.setStatus(unchanged ? HttpServletResponse.SC_NOT_MODIFIED : HttpServletResponse.SC_OK);
+        for (Map.Entry<String, String> header : captured.getHeaders().entrySet()) {
+            if (!unchanged || !"Content-Length".equals(header.getKey())) {
+                response.setHeader(header.getKey(), header.getValue());
+            }
+        }
+        if (!unchanged) {
+            response.getOutputStream().write(captured.getBody());
+        }
+    }
+
+    public boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("relayed", relayed.get());
+        metrics.put("gzipRelayed", gzipRelayed.get());
+        metrics.put("notModified", notModified.get());
+        metrics.put("bytesRelayed", bytesRelayed.get());
+        metrics.put("aborted", aborted.get());
+        metrics.put("bufferAllocations", bufferAllocations.get());
+        metrics.put("pooledBuffers", buffers.size());
+        metrics.put("bufferSize", BUFFER_SIZE);
+        return metrics;
+    }
+
+    private void copy(ResponseBody body, OutputStream out, Capture capture) throws IOException {
+        byte[] buffer = borrowBuffer();
+        long total = 0;
+        try (InputStream in = body.byteStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                total += read;
+                if (capture != null) {
+                    capture.write(buffer, read);
+                }
+            }
+            out.flush();
+            if (capture != null) {
+                capture.complete();
+            }
+        } catch (IOException e) {
+            aborted.incrementAndGet();
+            log.debug("Pass-through relay aborted after {} bytes: {}", total, e.getMessage());
+            throw e;
+        } finally {
+            bytesRelayed.addAndGet(total);
+            buffers.offer(buffer);
+        }
+    }
+
+    private static Capture captureFor(okhttp3.Response backendResponse, Map<String, String> headers,
+                                      Consumer<CapturedBody> consumer, int maxBytes) {
+        if (consumer == null || backendResponse.code() != HttpServletResponse.SC_OK) {
+            return null;
+        }
+        long length = backendResponse.body().contentLength();
+        if (length > maxBytes) {
+            return null;
+        }
+        return new Capture(headers, consumer, maxBytes, length > 0 ? (int) length : BUFFER_SIZE);
+    }
+
+    private static Map<String, String> forwardedHeaders(okhttp3.Response backendResponse) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : FORWARDED_HEADERS) {
+            String value = backendResponse.header(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers;
+    }
+
+    private byte[] borrowBuffer() {
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            bufferAllocations.incrementAndGet();
+            buffer = new byte[BUFFER_SIZE];
+        }
+        return buffer;
+    }
+
+    private void countRelay(okhttp3.Response backendResponse) {
+        relayed.incrementAndGet();
+        if (backendResponse.code() == HttpServletResponse.SC_NOT_MODIFIED) {
+            notModified.incrementAndGet();
+        }
+        if ("gzip".equalsIgnoreCase(backendResponse.header("Content-Encoding"))) {
+            gzipRelayed.incrementAndGet();
+        }
+    }
+
+    private static boolean hasBody(okhttp3.Response backendResponse) {
+        int code = backendResponse.code();
+        return backendResponse.body() != null
+            && code != HttpServletResponse.SC_NOT_MODIFIED
+            && code != HttpServletResponse.SC_NO_CONTENT
+            && backendResponse.body().contentLength() != 0;
+    }
+
+    /**
+     * A relayed body kept for later replay, with the headers it was sent with.
+     */
+    public static class CapturedBody {
+        private final byte[] body;
+        private final Map<String, String> headers;
+
+        CapturedBody(byte[] body, Map<String, String> headers) {
+            this.body = body;
+            this.headers = headers;
+        }
+
+        public byte[] getBody() { return body; }
+        public Map<String, String> getHeaders() { return headers; }
+
+        boolean matches(String ifNoneMatch) {
+            String etag = headers.get("ETag");
+            return etag != null && ifNoneMatch != null && ifNoneMatch.contains(etag);
+        }
+    }
+
+    /**
+     * Accumulates a bounded copy of a body while it is relayed; gives up once the body
+     * outgrows {@code maxBytes}.
+     */
+    private static class Capture {
+        private final Map<String, String> headers;
+        private final Consumer<CapturedBody> consumer;
+        private final int maxBytes;
+        private ByteArrayOutputStream copy;
+
+        Capture(Map<String, String> headers, Consumer<CapturedBody> consumer, int maxBytes, int initialSize) {
+            this.headers = headers;
+            this.consumer = consumer;
+            this.maxBytes = maxBytes;
+            this.copy = new ByteArrayOutputStream(initialSize);
+        }
+
+        void write(byte[] buffer, int length) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + length > maxBytes) {
+                copy = null;
+                return;
+            }
+            copy.write(buffer, 0, length);
+        }
+
+        void complete() {
+            if (copy != null) {
+                consumer.accept(new CapturedBody(copy.toByteArray(), headers));
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.jurix.ai.api;
+
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.util.SingleFlight;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fetches /api/dashboard/{projectKey} with request collapsing. Concurrent requests for the
+ * same project share one in-flight backend call, and a successful result is reused for a
+ * short freshness window so a burst of dashboard opens costs a single backend round trip.
+ * Every backend load is stamped with an increasing generation, so callers can tell whether
+ * a shared result was requested before or after some event.
+ */
+@Named
+public class DashboardFetcher {
+    private static final Logger log = LoggerFactory.getLogger(DashboardFetcher.class);
+
+    private final BackendGateway backendGateway;
+    private final JurixConfiguration configuration;
+    private final SingleFlight<String, Result> singleFlight = new SingleFlight<>();
+    private final Map<String, Result> recent = new ConcurrentHashMap<>();
+    private final AtomicLong freshHits = new AtomicLong();
+    private final AtomicLong loadGeneration = new AtomicLong();
+
+    @Inject
+    public DashboardFetcher(BackendGateway backendGateway, JurixConfiguration configuration) {
+        this.backendGateway = backendGateway;
+        this.configuration = configuration;
+    }
+
+    public Result fetch(String projectKey) throws Exception {
+        long freshnessMs = configuration.getDashboardFreshnessMs();
+        Result cached = recent.get(projectKey);
+        if (cached != null && System.currentTimeMillis() - cached.fetchedAt <= freshnessMs) {
+            freshHits.incrementAndGet();
+            return cached;
+        }
+        return singleFlight.execute(projectKey, () -> load(projectKey));
+    }
+
+    /**
+     * Skips the freshness window; used for revalidation after the cached copy was invalidated.
+     */
+    public Result fetchFresh(String projectKey) throws Exception {
+        return singleFlight.execute(projectKey, () -> load(projectKey));
+    }
+
+    /**
+     * Generation of the most recently started load; loads started later get a higher one.
+     */
+    public long currentGeneration() {
+        return loadGeneration.get();
+    }
+
+    /**
+     * Reserves a generation for a dashboard obtained outside this fetcher.
+     */
+    public long nextGeneration() {
+        return loadGeneration.incrementAndGet();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("issued", singleFlight.getIssued());
+        metrics.put("collapsed", singleFlight.getCollapsed());
+        metrics.put("inFlight", singleFlight.getInFlight());
+        metrics.put("freshHits", freshHits.get());
+        metrics.put("freshnessMs", configuration.getDashboardFreshnessMs());
+        return metrics;
+    }
+
+    private Result load(String projectKey) throws Exception {
+        long generation = loadGeneration.incrementAndGet();
+        try (Response response = backendGateway.execute(
+                BackendGateway.Endpoint.DASHBOARD,
+                backendGateway.get("/api/dashboard/" + projectKey))) {
+            log.info("Python backend dashboard response code for {}: {}", projectKey, response.code());
+            Result result = new Result(response.code(), response.body().string(), System.currentTimeMillis(), generation);
+            if (result.isSuccessful()) {
+                recent.put(projectKey, result);
+            }
+            return result;
+        }
+    }
+
+    public static class Result {
+        private final int statusCode;
+        private final String body;
+        private final long fetchedAt;
+        private final long generation;
+
+        public Result(int statusCode, String body, long fetchedAt, long generation) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.fetchedAt = fetchedAt;
+            this.generation = generation;
+        }
+
+        public int getStatusCode() { return statusCode; }
+        public String getBody() { return body; }
+        public long getFetchedAt() { return fetchedAt; }
+        public long getGeneration() { return generation; }
+        public boolean isSuccessful() { return statusCode >= 200 && statusCode < 300; }
+    }
+}
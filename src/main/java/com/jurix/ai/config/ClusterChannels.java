@@ -0,0 +1,15 @@
+package com.jurix.ai.config;
+
+/**
+ * Names of the cluster message channels the plugin uses. Jira limits channel names to 20
+ * characters, so keep new names short and add them here.
+ */
+public final class ClusterChannels {
+
+    public static final String CONFIG_INVALIDATION = "jurix-config-inv";
+    public static final String ARTICLE_INVALIDATION = "jurix-article-inv";
+    public static final String CHAT_CONTEXT_INVALIDATION = "jurix-chat-ctx-inv";
+
+    private ClusterChannels() {
+    }
+}
@@ -1,32 +1,390 @@
 package com.jurix.ai.config;
 
+import com.atlassian.jira.cluster.ClusterMessageConsumer;
+import com.atlassian.jira.cluster.ClusterMessagingService;
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.atlassian.sal.api.pluginsettings.PluginSettingsFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Plugin settings backed by SAL PluginSettings. Values are read from the settings store
+ * once and then served from an in-memory snapshot, so getters on hot paths cost a map
+ * lookup instead of a database read. Setters write through to the store, replace the
+ * snapshot entry atomically, and tell the other cluster nodes to re-read that key.
+ */
 @Named
-public class JurixConfiguration {
+public class JurixConfiguration implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(JurixConfiguration.class);
+
+    private static final String INVALIDATION_CHANNEL = ClusterChannels.CONFIG_INVALIDATION;
+    private static final String RELOAD_ALL = "*";
+
     private static final String PLUGIN_KEY = "com.jurix.ai";
     private static final String BACKEND_URL_KEY = PLUGIN_KEY + ".backend.url";
     private static final String DEFAULT_BACKEND_URL = "http://host.docker.internal:5001";
-    
+
+    private static final String EVENT_WORKER_THREADS_KEY = PLUGIN_KEY + ".events.workerThreads";
+    private static final String EVENT_QUEUE_CAPACITY_KEY = PLUGIN_KEY + ".events.queueCapacity";
+    private static final String EVENT_OVERFLOW_POLICY_KEY = PLUGIN_KEY + ".events.overflowPolicy";
+    private static final String EVENT_COALESCE_WINDOW_KEY = PLUGIN_KEY + ".events.coalesceWindowMs";
+    private static final String NOTIFY_BATCH_SIZE_KEY = PLUGIN_KEY + ".notify.batchSize";
+    private static final String NOTIFY_BATCH_DELAY_KEY = PLUGIN_KEY + ".notify.batchDelayMs";
+    private static final String NOTIFY_MAX_PENDING_KEY = PLUGIN_KEY + ".notify.maxPending";
+    private static final String DASHBOARD_FRESHNESS_KEY = PLUGIN_KEY + ".dashboard.freshnessMs";
+    private static final String DASHBOARD_CACHE_TTL_KEY = PLUGIN_KEY + ".dashboard.cacheTtlMs";
+    private static final String DASHBOARD_CACHE_MAX_STALE_KEY = PLUGIN_KEY + ".dashboard.cacheMaxStaleMs";
+    private static final String DASHBOARD_CACHE_MAX_ENTRIES_KEY = PLUGIN_KEY + ".dashboard.cacheMaxEntries";
+    private static final String DASHBOARD_CACHE_MAX_BYTES_KEY = PLUGIN_KEY + ".dashboard.cacheMaxBytes";
+    private static final String DASHBOARD_PASS_THROUGH_KEY = PLUGIN_KEY + ".dashboard.passThrough";
+    private static final String SUGGESTION_CACHE_MAX_ENTRIES_KEY = PLUGIN_KEY + ".suggestions.cacheMaxEntries";
+    private static final String SUGGESTION_CACHE_TTL_KEY = PLUGIN_KEY + ".suggestions.cacheTtlMs";
+    private static final String SUGGESTION_CACHE_MAX_ENTRY_BYTES_KEY = PLUGIN_KEY + ".suggestions.cacheMaxEntryBytes";
+    private static final String SUGGESTION_LOCAL_ENABLED_KEY = PLUGIN_KEY + ".suggestions.localEnabled";
+    private static final String SUGGESTION_LOCAL_MIN_CONFIDENCE_KEY = PLUGIN_KEY + ".suggestions.localMinConfidencePercent";
+    private static final String SUGGESTION_LOCAL_MAX_RESULTS_KEY = PLUGIN_KEY + ".suggestions.localMaxResults";
+    private static final String SUGGESTION_VECTORS_ENABLED_KEY = PLUGIN_KEY + ".suggestions.vectorsEnabled";
+    private static final String SUGGESTION_VECTOR_MIN_SIMILARITY_KEY = PLUGIN_KEY + ".suggestions.vectorMinSimilarityPercent";
+    private static final String CHAT_CONTEXT_MAX_CONVERSATIONS_KEY = PLUGIN_KEY + ".chat.contextMaxConversations";
+    private static final String CHAT_CONTEXT_MAX_TURNS_KEY = PLUGIN_KEY + ".chat.contextMaxTurns";
+    private static final String CHAT_CONTEXT_MAX_CHARS_KEY = PLUGIN_KEY + ".chat.contextMaxChars";
+    private static final String CHAT_CONTEXT_IDLE_TTL_KEY = PLUGIN_KEY + ".chat.contextIdleTtlMs";
+    private static final String ARTICLE_WORKER_THREADS_KEY = PLUGIN_KEY + ".articles.workerThreads";
+    private static final String ARTICLE_MAX_QUEUED_JOBS_KEY = PLUGIN_KEY + ".articles.maxQueuedJobs";
+    private static final String ARTICLE_CACHE_MAX_ENTRIES_KEY = PLUGIN_KEY + ".articles.cacheMaxEntries";
+    private static final String ARTICLE_CACHE_MAX_BYTES_KEY = PLUGIN_KEY + ".articles.cacheMaxBytes";
+    private static final String LEASE_SWEEP_INTERVAL_KEY = PLUGIN_KEY + ".leases.sweepIntervalMs";
+    private static final String LEASE_SWEEP_BATCH_SIZE_KEY = PLUGIN_KEY + ".leases.sweepBatchSize";
+    private static final String REDIS_ENABLED_KEY = PLUGIN_KEY + ".redis.enabled";
+    private static final String REDIS_HOST_KEY = PLUGIN_KEY + ".redis.host";
+    private static final String REDIS_PORT_KEY = PLUGIN_KEY + ".redis.port";
+    private static final String REDIS_SSL_KEY = PLUGIN_KEY + ".redis.ssl";
+    private static final String REDIS_PASSWORD_KEY = PLUGIN_KEY + ".redis.password";
+    private static final String REDIS_DATABASE_KEY = PLUGIN_KEY + ".redis.database";
+    private static final String REDIS_TIMEOUT_KEY = PLUGIN_KEY + ".redis.timeoutMs";
+    private static final String REDIS_POOL_MAX_TOTAL_KEY = PLUGIN_KEY + ".redis.pool.maxTotal";
+    private static final String REDIS_POOL_MAX_IDLE_KEY = PLUGIN_KEY + ".redis.pool.maxIdle";
+    private static final String REDIS_POOL_MIN_IDLE_KEY = PLUGIN_KEY + ".redis.pool.minIdle";
+    private static final String REDIS_POOL_MAX_WAIT_KEY = PLUGIN_KEY + ".redis.pool.maxWaitMs";
+    private static final String REDIS_POOL_TEST_ON_BORROW_KEY = PLUGIN_KEY + ".redis.pool.testOnBorrow";
+    private static final String REDIS_POOL_IDLE_CHECK_INTERVAL_KEY = PLUGIN_KEY + ".redis.pool.idleCheckIntervalMs";
+    private static final String REDIS_RECONNECT_INTERVAL_KEY = PLUGIN_KEY + ".redis.reconnectIntervalMs";
+    private static final String BACKEND_MAX_IN_FLIGHT_PREFIX = PLUGIN_KEY + ".backend.maxInFlight.";
+    private static final int DEFAULT_SUGGESTION_CACHE_MAX_ENTRIES = 1000;
+    private static final int DEFAULT_SUGGESTION_CACHE_TTL_MS = 10 * 60 * 1000;
+    private static final int DEFAULT_SUGGESTION_CACHE_MAX_ENTRY_BYTES = 256 * 1024;
+    private static final int DEFAULT_SUGGESTION_LOCAL_MIN_CONFIDENCE_PERCENT = 35;
+    private static final int DEFAULT_SUGGESTION_LOCAL_MAX_RESULTS = 5;
+    private static final int DEFAULT_SUGGESTION_VECTOR_MIN_SIMILARITY_PERCENT = 80;
+    private static final int DEFAULT_CHAT_CONTEXT_MAX_CONVERSATIONS = 2000;
+    private static final int DEFAULT_CHAT_CONTEXT_MAX_TURNS = 6;
+    private static final int DEFAULT_CHAT_CONTEXT_MAX_CHARS = 8000;
+    private static final int DEFAULT_CHAT_CONTEXT_IDLE_TTL_MS = 30 * 60 * 1000;
+    private static final int DEFAULT_ARTICLE_WORKER_THREADS = 2;
+    private static final int DEFAULT_ARTICLE_MAX_QUEUED_JOBS = 500;
+    private static final int DEFAULT_ARTICLE_CACHE_MAX_ENTRIES = 2000;
+    private static final int DEFAULT_ARTICLE_CACHE_MAX_BYTES = 16 * 1024 * 1024;
+    private static final int DEFAULT_LEASE_SWEEP_INTERVAL_MS = 5 * 60 * 1000;
+    private static final int DEFAULT_LEASE_SWEEP_BATCH_SIZE = 200;
+    private static final String DEFAULT_REDIS_HOST = "localhost";
+    private static final int DEFAULT_REDIS_PORT = 6379;
+    private static final int DEFAULT_REDIS_TIMEOUT_MS = 2000;
+    private static final int DEFAULT_REDIS_POOL_MAX_TOTAL = 32;
+    private static final int DEFAULT_REDIS_POOL_MAX_IDLE = 8;
+    private static final int DEFAULT_REDIS_POOL_MIN_IDLE = 2;
+    private static final int DEFAULT_REDIS_POOL_MAX_WAIT_MS = 500;
+    private static final int DEFAULT_REDIS_POOL_IDLE_CHECK_INTERVAL_MS = 30 * 1000;
+    private static final int DEFAULT_REDIS_RECONNECT_INTERVAL_MS = 30 * 1000;
+    private static final int DEFAULT_EVENT_WORKER_THREADS = 4;
+    private static final int DEFAULT_EVENT_QUEUE_CAPACITY = 2000;
+    private static final String DEFAULT_EVENT_OVERFLOW_POLICY = "COALESCE";
+    private static final int DEFAULT_EVENT_COALESCE_WINDOW_MS = 250;
+    private static final int DEFAULT_NOTIFY_BATCH_SIZE = 200;
+    private static final int DEFAULT_NOTIFY_BATCH_DELAY_MS = 500;
+    private static final int DEFAULT_NOTIFY_MAX_PENDING = 10000;
+    private static final int DEFAULT_DASHBOARD_FRESHNESS_MS = 5000;
+    private static final int DEFAULT_DASHBOARD_CACHE_TTL_MS = 60 * 1000;
+    private static final int DEFAULT_DASHBOARD_CACHE_MAX_STALE_MS = 10 * 60 * 1000;
+    private static final int DEFAULT_DASHBOARD_CACHE_MAX_ENTRIES = 200;
+    private static final int DEFAULT_DASHBOARD_CACHE_MAX_BYTES = 32 * 1024 * 1024;
+
     private final PluginSettingsFactory pluginSettingsFactory;
-    
+    private final ClusterMessagingService clusterMessagingService;
+    private final Map<String, Optional<String>> snapshot = new ConcurrentHashMap<>();
+    private final ClusterMessageConsumer invalidationConsumer = (channel, key, senderId) -> {
+        log.info("Configuration changed on node {}, reloading {}", senderId, key);
+        if (RELOAD_ALL.equals(key)) {
+            snapshot.clear();
+        } else {
+            snapshot.remove(key);
+        }
+    };
+
     @Inject
-    public JurixConfiguration(PluginSettingsFactory pluginSettingsFactory) {
+    public JurixConfiguration(PluginSettingsFactory pluginSettingsFactory,
+                              ClusterMessagingService clusterMessagingService) {
         this.pluginSettingsFactory = pluginSettingsFactory;
+        this.clusterMessagingService = clusterMessagingService;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        clusterMessagingService.registerListener(INVALIDATION_CHANNEL, invalidationConsumer);
     }
-    
+
+    @Override
+    public void destroy() {
+        clusterMessagingService.unregisterListener(INVALIDATION_CHANNEL, invalidationConsumer);
+    }
+
     public String getBackendUrl() {
-        PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
-        String url = (String) settings.get(BACKEND_URL_KEY);
-        return url != null ? url : DEFAULT_BACKEND_URL;
+        return getString(BACKEND_URL_KEY, DEFAULT_BACKEND_URL);
     }
- 
+
     public void setBackendUrl(String url) {
+        String normalized = url != null ? url.trim().replaceAll("/+$", "") : null;
+        putString(BACKEND_URL_KEY, normalized);
+        log.info("Backend URL set to {}", normalized != null ? normalized : DEFAULT_BACKEND_URL);
+    }
+
+    /**
+     * Drops the whole snapshot on every node, for settings changed outside these setters.
+     */
+    public void reload() {
+        snapshot.clear();
+        clusterMessagingService.sendRemote(INVALIDATION_CHANNEL, RELOAD_ALL);
+    }
+
+    public boolean isRedisEnabled() {
+        return getBoolean(REDIS_ENABLED_KEY, true);
+    }
+
+    public String getRedisHost() {
+        return getString(REDIS_HOST_KEY, DEFAULT_REDIS_HOST);
+    }
+
+    public int getRedisPort() {
+        return getInt(REDIS_PORT_KEY, DEFAULT_REDIS_PORT);
+    }
+
+    public boolean isRedisSsl() {
+        return getBoolean(REDIS_SSL_KEY, false);
+    }
+
+    public String getRedisPassword() {
+        return getString(REDIS_PASSWORD_KEY, null);
+    }
+
+    public int getRedisDatabase() {
+        return getInt(REDIS_DATABASE_KEY, 0);
+    }
+
+    public int getRedisTimeoutMs() {
+        return getInt(REDIS_TIMEOUT_KEY, DEFAULT_REDIS_TIMEOUT_MS);
+    }
+
+    public int getRedisPoolMaxTotal() {
+        return getInt(REDIS_POOL_MAX_TOTAL_KEY, DEFAULT_REDIS_POOL_MAX_TOTAL);
+    }
+
+    public int getRedisPoolMaxIdle() {
+        return getInt(REDIS_POOL_MAX_IDLE_KEY, DEFAULT_REDIS_POOL_MAX_IDLE);
+    }
+
+    public int getRedisPoolMinIdle() {
+        return getInt(REDIS_POOL_MIN_IDLE_KEY, DEFAULT_REDIS_POOL_MIN_IDLE);
+    }
+
+    public int getRedisPoolMaxWaitMs() {
+        return getInt(REDIS_POOL_MAX_WAIT_KEY, DEFAULT_REDIS_POOL_MAX_WAIT_MS);
+    }
+
+    public boolean isRedisPoolTestOnBorrow() {
+        return getBoolean(REDIS_POOL_TEST_ON_BORROW_KEY, false);
+    }
+
+    public int getRedisPoolIdleCheckIntervalMs() {
+        return getInt(REDIS_POOL_IDLE_CHECK_INTERVAL_KEY, DEFAULT_REDIS_POOL_IDLE_CHECK_INTERVAL_MS);
+    }
+
+    public int getRedisReconnectIntervalMs() {
+        return getInt(REDIS_RECONNECT_INTERVAL_KEY, DEFAULT_REDIS_RECONNECT_INTERVAL_MS);
+    }
+
+    public int getBackendMaxInFlight(String endpointName, int defaultValue) {
+        return getInt(BACKEND_MAX_IN_FLIGHT_PREFIX + endpointName, defaultValue);
+    }
+
+    public int getEventWorkerThreads() {
+        return getInt(EVENT_WORKER_THREADS_KEY, DEFAULT_EVENT_WORKER_THREADS);
+    }
+
+    public int getEventQueueCapacity() {
+        return getInt(EVENT_QUEUE_CAPACITY_KEY, DEFAULT_EVENT_QUEUE_CAPACITY);
+    }
+
+    public String getEventOverflowPolicy() {
+        return getString(EVENT_OVERFLOW_POLICY_KEY, DEFAULT_EVENT_OVERFLOW_POLICY);
+    }
+
+    public int getEventCoalesceWindowMs() {
+        return getInt(EVENT_COALESCE_WINDOW_KEY, DEFAULT_EVENT_COALESCE_WINDOW_MS);
+    }
+
+    public int getNotifyBatchSize() {
+        return getInt(NOTIFY_BATCH_SIZE_KEY, DEFAULT_NOTIFY_BATCH_SIZE);
+    }
+
+    public int getNotifyBatchDelayMs() {
+        return getInt(NOTIFY_BATCH_DELAY_KEY, DEFAULT_NOTIFY_BATCH_DELAY_MS);
+    }
+
+    public int getNotifyMaxPending() {
+        return getInt(NOTIFY_MAX_PENDING_KEY, DEFAULT_NOTIFY_MAX_PENDING);
+    }
+
+    public int getDashboardFreshnessMs() {
+        return getInt(DASHBOARD_FRESHNESS_KEY, DEFAULT_DASHBOARD_FRESHNESS_MS);
+    }
+
+    public int getDashboardCacheTtlMs() {
+        return getInt(DASHBOARD_CACHE_TTL_KEY, DEFAULT_DASHBOARD_CACHE_TTL_MS);
+    }
+
+    public int getDashboardCacheMaxStaleMs() {
+        return getInt(DASHBOARD_CACHE_MAX_STALE_KEY, DEFAULT_DASHBOARD_CACHE_MAX_STALE_MS);
+    }
+
+    public int getDashboardCacheMaxEntries() {
+        return getInt(DASHBOARD_CACHE_MAX_ENTRIES_KEY, DEFAULT_DASHBOARD_CACHE_MAX_ENTRIES);
+    }
+
+    public int getDashboardCacheMaxBytes() {
+        return getInt(DASHBOARD_CACHE_MAX_BYTES_KEY, DEFAULT_DASHBOARD_CACHE_MAX_BYTES);
+    }
+
+    public boolean isDashboardPassThrough() {
+        return getBoolean(DASHBOARD_PASS_THROUGH_KEY, false);
+    }
+
+    public int getSuggestionCacheMaxEntries() {
+        return getInt(SUGGESTION_CACHE_MAX_ENTRIES_KEY, DEFAULT_SUGGESTION_CACHE_MAX_ENTRIES);
+    }
+
+    public int getSuggestionCacheTtlMs() {
+        return getInt(SUGGESTION_CACHE_TTL_KEY, DEFAULT_SUGGESTION_CACHE_TTL_MS);
+    }
+
+    public int getSuggestionCacheMaxEntryBytes() {
+        return getInt(SUGGESTION_CACHE_MAX_ENTRY_BYTES_KEY, DEFAULT_SUGGESTION_CACHE_MAX_ENTRY_BYTES);
+    }
+
+    public boolean isSuggestionLocalEnabled() {
+        return getBoolean(SUGGESTION_LOCAL_ENABLED_KEY, true);
+    }
+
+    public int getSuggestionLocalMinConfidencePercent() {
+        return getInt(SUGGESTION_LOCAL_MIN_CONFIDENCE_KEY, DEFAULT_SUGGESTION_LOCAL_MIN_CONFIDENCE_PERCENT);
+    }
+
+    public int getSuggestionLocalMaxResults() {
+        return getInt(SUGGESTION_LOCAL_MAX_RESULTS_KEY, DEFAULT_SUGGESTION_LOCAL_MAX_RESULTS);
+    }
+
+    public boolean isSuggestionVectorsEnabled() {
+        return getBoolean(SUGGESTION_VECTORS_ENABLED_KEY, false);
+    }
+
+    public int getSuggestionVectorMinSimilarityPercent() {
+        return getInt(SUGGESTION_VECTOR_MIN_SIMILARITY_KEY, DEFAULT_SUGGESTION_VECTOR_MIN_SIMILARITY_PERCENT);
+    }
+
+    public int getChatContextMaxConversations() {
+        return getInt(CHAT_CONTEXT_MAX_CONVERSATIONS_KEY, DEFAULT_CHAT_CONTEXT_MAX_CONVERSATIONS);
+    }
+
+    public int getChatContextMaxTurns() {
+        return getInt(CHAT_CONTEXT_MAX_TURNS_KEY, DEFAULT_CHAT_CONTEXT_MAX_TURNS);
+    }
+
+    public int getChatContextMaxChars() {
+        return getInt(CHAT_CONTEXT_MAX_CHARS_KEY, DEFAULT_CHAT_CONTEXT_MAX_CHARS);
+    }
+
+    public int getChatContextIdleTtlMs() {
+        return getInt(CHAT_CONTEXT_IDLE_TTL_KEY, DEFAULT_CHAT_CONTEXT_IDLE_TTL_MS);
+    }
+
+    public int getArticleWorkerThreads() {
+        return getInt(ARTICLE_WORKER_THREADS_KEY, DEFAULT_ARTICLE_WORKER_THREADS);
+    }
+
+    public int getArticleMaxQueuedJobs() {
+        return getInt(ARTICLE_MAX_QUEUED_JOBS_KEY, DEFAULT_ARTICLE_MAX_QUEUED_JOBS);
+    }
+
+    public int getArticleCacheMaxEntries() {
+        return getInt(ARTICLE_CACHE_MAX_ENTRIES_KEY, DEFAULT_ARTICLE_CACHE_MAX_ENTRIES);
+    }
+
+    public int getArticleCacheMaxBytes() {
+        return getInt(ARTICLE_CACHE_MAX_BYTES_KEY, DEFAULT_ARTICLE_CACHE_MAX_BYTES);
+    }
+
+    public int getLeaseSweepIntervalMs() {
+        return getInt(LEASE_SWEEP_INTERVAL_KEY, DEFAULT_LEASE_SWEEP_INTERVAL_MS);
+    }
+
+    public int getLeaseSweepBatchSize() {
+        return getInt(LEASE_SWEEP_BATCH_SIZE_KEY, DEFAULT_LEASE_SWEEP_BATCH_SIZE);
+    }
+
+    private String getString(String key, String defaultValue) {
+        return snapshot.computeIfAbsent(key, this::readSetting).orElse(defaultValue);
+    }
+
+    private Optional<String> readSetting(String key) {
         PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
-        settings.put(BACKEND_URL_KEY, url);
+        Object value = settings.get(key);
+        return value instanceof String && !((String) value).trim().isEmpty()
+            ? Optional.of(((String) value).trim())
+            : Optional.empty();
+    }
+
+    private synchronized void putString(String key, String value) {
+        PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
+        if (value == null || value.isEmpty()) {
+            settings.remove(key);
+            snapshot.put(key, Optional.empty());
+        } else {
+            settings.put(key, value);
+            snapshot.put(key, Optional.of(value));
+        }
+        clusterMessagingService.sendRemote(INVALIDATION_CHANNEL, key);
+    }
+
+    private int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,222 @@
+package com.jurix.ai.listener;
+
+import com.jurix.ai.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Bounded worker pool for issue event processing. Tasks are keyed by issue key so that,
+ * when the queue is full, the COALESCE policy can fold a new task into the latest one still
+ * waiting for the same issue instead of dropping it. The latest waiting task per key is kept
+ * in a map, so the overflow path does not scan the queue.
+ */
+public class EventProcessingExecutor {
+    private static final Logger log = LoggerFactory.getLogger(EventProcessingExecutor.class);
+
+    public enum OverflowPolicy {
+        COALESCE,
+        DROP_OLDEST,
+        CALLER_RUNS;
+
+        public static OverflowPolicy fromString(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (Exception e) {
+                return COALESCE;
+            }
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final OverflowPolicy overflowPolicy;
+    private final int queueCapacity;
+    private final Map<String, KeyedTask<?>> waitingByKey = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public EventProcessingExecutor(String name, int threads, int queueCapacity, OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(
+            threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new NamedThreadFactory(name),
+            new OverflowHandler());
+        log.info("Event executor '{}' started: threads={}, queueCapacity={}, overflowPolicy={}",
+                 name, threads, queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * Queues a task that, under the COALESCE policy, simply replaces a waiting task for the
+     * same key.
+     */
+    public void submit(String key, Runnable task) {
+        submit(key, task, (waiting, later) -> later, Runnable::run);
+    }
+
+    /**
+     * Queues {@code handler} for {@code payload}. Under the COALESCE policy a full queue
+     * folds the payload into the latest waiting payload for the same key with {@code merger}
+     * (called with the waiting payload first).
+     */
+    public <T> void submit(String key, T payload, BinaryOperator<T> merger, Consumer<T> handler) {
+        submitted.incrementAndGet();
+        KeyedTask<T> task = new KeyedTask<>(key, payload, merger, handler);
+        executor.execute(task);
+        if (task.queued && key != null) {
+            waitingByKey.compute(key, (k, current) -> task.isStarted() ? current : task);
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public Map<String, Object> getMetrics() {
+        long finished = completed.get() + failed.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("overflowPolicy", overflowPolicy.name());
+        metrics.put("poolSize", executor.getPoolSize());
+        metrics.put("activeThreads", executor.getActiveCount());
+        metrics.put("queueDepth", getQueueDepth());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("submitted", submitted.get());
+        metrics.put("completed", completed.get());
+        metrics.put("failed", failed.get());
+        metrics.put("coalesced", coalesced.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("callerRuns", callerRuns.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("avgWaitMillis", finished > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / finished) : 0);
+        metrics.put("maxWaitMillis", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        return metrics;
+    }
+
+    public void shutdown(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, unit)) {
+                int abandoned = executor.shutdownNow().size();
+                log.warn("Event executor did not drain in time, abandoned {} queued events", abandoned);
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class OverflowHandler implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor pool) {
+            KeyedTask<?> task = (KeyedTask<?>) runnable;
+            task.queued = false;
+            if (pool.isShutdown()) {
+                rejected.incrementAndGet();
+                return;
+            }
+            switch (overflowPolicy) {
+                case CALLER_RUNS:
+                    callerRuns.incrementAndGet();
+                    task.run();
+                    break;
+                case DROP_OLDEST:
+                    KeyedTask<?> oldest = (KeyedTask<?>) pool.getQueue().poll();
+                    if (oldest != null) {
+                        dropped.incrementAndGet();
+                        if (oldest.key != null) {
+                            waitingByKey.remove(oldest.key, oldest);
+                        }
+                    }
+                    if (pool.getQueue().offer(task)) {
+                        task.queued = true;
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                    break;
+                case COALESCE:
+                default:
+                    KeyedTask<?> waiting = task.key != null ? waitingByKey.get(task.key) : null;
+                    if (waiting != null && waiting.absorb(task)) {
+                        coalesced.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                        log.warn("Event queue full, rejected event for {}", task.key);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private class KeyedTask<T> implements Runnable {
+        private final String key;
+        private final long enqueuedAt = System.nanoTime();
+        private final BinaryOperator<T> merger;
+        private final Consumer<T> handler;
+        private T payload;
+        private boolean started;
+        // Set and read on the submitting thread: false once the overflow handler has dealt
+        // with the task instead of queueing it.
+        private boolean queued = true;
+
+        KeyedTask(String key, T payload, BinaryOperator<T> merger, Consumer<T> handler) {
+            this.key = key;
+            this.payload = payload;
+            this.merger = merger;
+            this.handler = handler;
+        }
+
+        synchronized boolean isStarted() {
+            return started;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized boolean absorb(KeyedTask<?> later) {
+            if (started) {
+                return false;
+            }
+            this.payload = merger.apply(payload, (T) later.payload);
+            return true;
+        }
+
+        @Override
+        public void run() {
+            T toRun;
+            synchronized (this) {
+                started = true;
+                toRun = payload;
+            }
+            if (key != null) {
+                waitingByKey.remove(key, this);
+            }
+            long waited = System.nanoTime() - enqueuedAt;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            try {
+                handler.accept(toRun);
+                completed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Error processing event for {}", key, e);
+            }
+        }
+    }
+}
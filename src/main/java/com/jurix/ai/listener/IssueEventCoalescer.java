@@ -0,0 +1,139 @@
+package com.jurix.ai.listener;
+
+import com.atlassian.jira.issue.Issue;
+import com.jurix.ai.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Merges the burst of IssueEvents Jira fires for a single edit (updated, assigned,
+ * work_started, ...) into one CoalescedEvent per issue. The first event for an issue opens
+ * a window; everything that arrives for the same issue before it closes is folded in.
+ */
+public class IssueEventCoalescer {
+    private static final Logger log = LoggerFactory.getLogger(IssueEventCoalescer.class);
+
+    private final long windowMillis;
+    private final Consumer<CoalescedEvent> sink;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, CoalescedEvent> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong emitted = new AtomicLong();
+
+    public IssueEventCoalescer(long windowMillis, Consumer<CoalescedEvent> sink) {
+        this.windowMillis = windowMillis;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("jurix-event-coalescer"));
+        log.info("Issue event coalescer started with a {} ms window", windowMillis);
+    }
+
+    public void add(String projectKey, Issue issue, String eventType) {
+        received.incrementAndGet();
+        if (windowMillis <= 0) {
+            emit(new CoalescedEvent(projectKey, issue, eventType));
+            return;
+        }
+
+        String issueKey = issue.getKey();
+        boolean[] opened = {false};
+        pending.compute(issueKey, (key, existing) -> {
+            if (existing == null) {
+                opened[0] = true;
+                return new CoalescedEvent(projectKey, issue, eventType);
+            }
+            existing.merge(issue, eventType);
+            return existing;
+        });
+        if (opened[0]) {
+            scheduler.schedule(() -> flush(issueKey), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("windowMillis", windowMillis);
+        metrics.put("received", received.get());
+        metrics.put("emitted", emitted.get());
+        metrics.put("pendingIssues", pending.size());
+        return metrics;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (String issueKey : new ArrayList<>(pending.keySet())) {
+            flush(issueKey);
+        }
+    }
+
+    private void flush(String issueKey) {
+        CoalescedEvent event = pending.remove(issueKey);
+        if (event != null) {
+            emit(event);
+        }
+    }
+
+    private void emit(CoalescedEvent event) {
+        emitted.incrementAndGet();
+        try {
+            sink.accept(event);
+        } catch (Exception e) {
+            log.error("Error dispatching coalesced event for {}", event.getIssueKey(), e);
+        }
+    }
+
+    public static class CoalescedEvent {
+        private final String projectKey;
+        private final String issueKey;
+        private final Set<String> eventTypes = new LinkedHashSet<>();
+        private Issue issue;
+
+        CoalescedEvent(String projectKey, Issue issue, String eventType) {
+            this.projectKey = projectKey;
+            this.issueKey = issue.getKey();
+            this.issue = issue;
+            this.eventTypes.add(eventType);
+        }
+
+        synchronized void merge(Issue latest, String eventType) {
+            this.issue = latest;
+            this.eventTypes.remove(eventType);
+            this.eventTypes.add(eventType);
+        }
+
+        /**
+         * Folds a later event for the same issue into this one: the event types are joined
+         * and the later issue state wins.
+         */
+        CoalescedEvent absorb(CoalescedEvent later) {
+            List<String> laterTypes = later.getEventTypes();
+            Issue laterIssue = later.getIssue();
+            synchronized (this) {
+                this.issue = laterIssue;
+                for (String eventType : laterTypes) {
+                    this.eventTypes.remove(eventType);
+                    this.eventTypes.add(eventType);
+                }
+            }
+            return this;
+        }
+
+        public String getProjectKey() { return projectKey; }
+        public String getIssueKey() { return issueKey; }
+        public synchronized Issue getIssue() { return issue; }
+        public synchronized List<String> getEventTypes() { return new ArrayList<>(eventTypes); }
+    }
+}
@@ -0,0 +1,185 @@
+package com.jurix.ai.listener;
+
+import com.google.gson.Gson;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.util.NamedThreadFactory;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micro-batches /api/notify-update payloads per project. A batch is flushed as one JSON array
+ * once it reaches the size limit or its oldest entry has waited for the delay limit. Each
+ * project has at most one batch in flight, which keeps notifications for an issue in order;
+ * a global permit pool blocks producers briefly when the backend falls behind.
+ */
+public class UpdateNotificationBatcher {
+    private static final Logger log = LoggerFactory.getLogger(UpdateNotificationBatcher.class);
+    private static final String NOTIFY_PATH = "/api/notify-update";
+    private static final long BACKPRESSURE_WAIT_MS = 2000;
+
+    private final BackendGateway backendGateway;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final Semaphore pendingPermits;
+    private final int maxPending;
+    private final Gson gson = new Gson();
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, ProjectBatch> batches = new ConcurrentHashMap<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong notificationsSent = new AtomicLong();
+    private final AtomicLong batchFailures = new AtomicLong();
+    private final AtomicLong backpressureWaits = new AtomicLong();
+
+    public UpdateNotificationBatcher(BackendGateway backendGateway, int maxBatchSize, long maxDelayMillis, int maxPending) {
+        this.backendGateway = backendGateway;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxPending = maxPending;
+        this.pendingPermits = new Semaphore(maxPending);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("jurix-notify-batcher"));
+        log.info("Notification batcher started: maxBatchSize={}, maxDelayMs={}, maxPending={}",
+                 maxBatchSize, maxDelayMillis, maxPending);
+    }
+
+    public void add(String projectKey, Map<String, Object> notification) {
+        if (!pendingPermits.tryAcquire()) {
+            backpressureWaits.incrementAndGet();
+            try {
+                if (!pendingPermits.tryAcquire(BACKPRESSURE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    dropped.incrementAndGet();
+                    log.warn("Backend notification backlog full, dropping update for project {}", projectKey);
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+        accepted.incrementAndGet();
+        batches.computeIfAbsent(projectKey, ProjectBatch::new).add(notification);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("maxBatchSize", maxBatchSize);
+        metrics.put("maxDelayMillis", maxDelayMillis);
+        metrics.put("pending", maxPending - pendingPermits.availablePermits());
+        metrics.put("accepted", accepted.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("batchesSent", batchesSent.get());
+        metrics.put("notificationsSent", notificationsSent.get());
+        metrics.put("batchFailures", batchFailures.get());
+        metrics.put("backpressureWaits", backpressureWaits.get());
+        return metrics;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (ProjectBatch batch : batches.values()) {
+            batch.flush();
+        }
+    }
+
+    private class ProjectBatch {
+        private final String projectKey;
+        private final ArrayDeque<Map<String, Object>> buffer = new ArrayDeque<>();
+        private boolean inFlight;
+        private boolean flushScheduled;
+
+        ProjectBatch(String projectKey) {
+            this.projectKey = projectKey;
+        }
+
+        synchronized void add(Map<String, Object> notification) {
+            buffer.addLast(notification);
+            if (buffer.size() >= maxBatchSize) {
+                flush();
+            } else if (!flushScheduled && !inFlight) {
+                flushScheduled = true;
+                try {
+                    scheduler.schedule(this::flush, maxDelayMillis, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    flush();
+                }
+            }
+        }
+
+        synchronized void flush() {
+            flushScheduled = false;
+            if (inFlight || buffer.isEmpty()) {
+                return;
+            }
+            List<Map<String, Object>> batch = new ArrayList<>(Math.min(buffer.size(), maxBatchSize));
+            while (!buffer.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(buffer.pollFirst());
+            }
+            inFlight = true;
+            send(batch);
+        }
+
+        private void send(List<Map<String, Object>> batch) {
+            try {
+                backendGateway.enqueue(BackendGateway.Endpoint.NOTIFY_UPDATE,
+                    backendGateway.postJson(NOTIFY_PATH, gson.toJson(batch)),
+                    new Callback() {
+                        @Override
+                        public void onFailure(Call call, IOException e) {
+                            batchFailures.incrementAndGet();
+                            log.warn("Failed to notify Python backend for project {} ({} updates): {}",
+                                     projectKey, batch.size(), e.getMessage());
+                            completed(batch.size());
+                        }
+
+                        @Override
+                        public void onResponse(Call call, Response response) {
+                            try {
+                                if (response.isSuccessful()) {
+                                    batchesSent.incrementAndGet();
+                                    notificationsSent.addAndGet(batch.size());
+                                } else {
+                                    batchFailures.incrementAndGet();
+                                    log.warn("Python backend rejected notification batch for project {}: {}",
+                                             projectKey, response.code());
+                                }
+                            } finally {
+                                response.close();
+                                completed(batch.size());
+                            }
+                        }
+                    });
+            } catch (Exception e) {
+                batchFailures.incrementAndGet();
+                log.error("Error sending notification batch for project {}", projectKey, e);
+                completed(batch.size());
+            }
+        }
+
+        private synchronized void completed(int size) {
+            pendingPermits.release(size);
+            inFlight = false;
+            if (!buffer.isEmpty()) {
+                flush();
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.atlassian.jira.plugin.webfragment.model.JiraHelper;
 import com.atlassian.jira.user.ApplicationUser;
 import com.atlassian.jira.issue.Issue;
 import com.jurix.ai.service.ArticleGenerationService;
+import com.jurix.ai.service.ArticleJobService;
+import com.opensymphony.util.TextUtils;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -15,10 +17,12 @@ import java.util.Map;
 public class ArticleStatusPanelProvider extends AbstractJiraContextProvider {
     
     private final ArticleGenerationService articleService;
+    private final ArticleJobService jobService;
     
     @Inject
-    public ArticleStatusPanelProvider(ArticleGenerationService articleService) {
+    public ArticleStatusPanelProvider(ArticleGenerationService articleService, ArticleJobService jobService) {
         this.articleService = articleService;
+        this.jobService = jobService;
     }
     
     @Override
@@ -42,6 +46,15 @@ public class ArticleStatusPanelProvider extends AbstractJiraContextProvider {
             } else {
                 contextMap.put("hasArticle", false);
             }
+            
+            Map<String, Object> job = jobService.getLatestJob(issue.getKey());
+            if (job != null) {
+                contextMap.put("jobId", job.get("jobId"));
+                contextMap.put("jobStatus", job.get("jobStatus"));
+                contextMap.put("jobError", job.get("error"));
+                // The error text comes from the backend; the template HTML-encodes it.
+                contextMap.put("textutils", new TextUtils());
+            }
         }
         
         return contextMap;
@@ -1,7 +1,11 @@
 package com.jurix.ai.rest;
 
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
+import com.jurix.ai.api.BackendGateway;
 import com.jurix.ai.service.ArticleGenerationService;
+import com.jurix.ai.service.ArticleJobService;
+import com.jurix.ai.service.ArticleStore;
+import com.jurix.ai.service.GenerationLeaseService;
 import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.issue.IssueManager;
 import com.atlassian.jira.issue.Issue;
@@ -18,7 +22,7 @@ import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.RejectedExecutionException;
 
 @Named
 @Path("/article")
@@ -29,16 +33,20 @@ public class ArticleController {
     private static final Logger log = LoggerFactory.getLogger(ArticleController.class);
     private final ArticleGenerationService articleService;
     private final Gson gson = new Gson();
-    private final OkHttpClient httpClient;
+    private final BackendGateway backendGateway;
+    private final ArticleJobService jobService;
+    private final ArticleStore articleStore;
+    private final GenerationLeaseService leaseService;
     
     @Inject
-    public ArticleController(ArticleGenerationService articleService) {
+    public ArticleController(ArticleGenerationService articleService, BackendGateway backendGateway,
+                             ArticleJobService jobService, ArticleStore articleStore,
+                             GenerationLeaseService leaseService) {
         this.articleService = articleService;
-        this.httpClient = new OkHttpClient.Builder()
-            .connectTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .readTimeout(120, TimeUnit.SECONDS)
-            .build();
+        this.backendGateway = backendGateway;
+        this.jobService = jobService;
+        this.articleStore = articleStore;
+        this.leaseService = leaseService;
     }
     
     @GET
@@ -63,16 +71,12 @@ public class ArticleController {
             }
             log.info("🔍 Article not in local storage, checking Python backend...");
             
-            String backendUrl = "http://host.docker.internal:5001/api/article/status/" + issueKey;
-            Request request = new Request.Builder()
-                .url(backendUrl)
-                .get()
-                .build();
+            Request request = backendGateway.get("/api/article/status/" + issueKey);
             
-            try (okhttp3.Response backendResponse = httpClient.newCall(request).execute()) {
+            try (okhttp3.Response backendResponse = backendGateway.execute(
+                    BackendGateway.Endpoint.ARTICLE_STATUS, request)) {
                 if (backendResponse.isSuccessful()) {
-                    String responseBody = backendResponse.body().string();
-                    Map<String, Object> backendData = gson.fromJson(responseBody, Map.class);
+                    Map<String, Object> backendData = gson.fromJson(backendResponse.body().charStream(), Map.class);
                     
                     if ("success".equals(backendData.get("status"))) {
                         Map<String, Object> article = (Map<String, Object>) backendData.get("article");
@@ -93,34 +97,11 @@ public class ArticleController {
                 if (status.equalsIgnoreCase("Done") || status.equalsIgnoreCase("Resolved") || 
                     status.equalsIgnoreCase("Closed")) {
                     
-                    log.info("🔄 Issue is resolved but no article found. Generating...");
-                    Map<String, Object> issueData = new HashMap<>();
-                    issueData.put("key", issue.getKey());
-                    issueData.put("summary", issue.getSummary());
-                    issueData.put("description", issue.getDescription());
-                    issueData.put("status", status);
-                    issueData.put("type", issue.getIssueType().getName());
-                    issueData.put("projectKey", issue.getProjectObject().getKey());
-                    
-                    RequestBody body = RequestBody.create(
-                        okhttp3.MediaType.parse("application/json"),
-                        gson.toJson(issueData)
-                    );
-                    
-                    Request genRequest = new Request.Builder()
-                        .url("http://host.docker.internal:5001/api/article/generate/" + issueKey)
-                        .post(body)
-                        .build();
-                    
-                    try (okhttp3.Response genResponse = httpClient.newCall(genRequest).execute()) {
-                        if (genResponse.isSuccessful()) {
-                            String genResponseBody = genResponse.body().string();
-                            Map<String, Object> genResult = gson.fromJson(genResponseBody, Map.class);
-                            articleService.storeArticleData(issueKey, genResult);
-                            
-                            return Response.ok(genResult).build();
-                        }
-                    }
+                    log.info("🔄 Issue is resolved but no article found. Queueing generation...");
+                    Map<String, Object> job = jobService.submit(issueKey, ArticleJobService.Trigger.AUTO);
+                    job.put("status", "generating");
+                    job.put("message", "Article generation has been queued");
+                    return Response.status(Response.Status.ACCEPTED).entity(job).build();
                 }
             }
             
@@ -143,10 +124,6 @@ public class ArticleController {
     public Response generateArticle(@PathParam("issueKey") String issueKey) {
         try {
             log.info("🚀 Article generation requested for: {}", issueKey);
-            String cacheKey = "article_generation:" + issueKey;
-            if (articleService.isArticleGenerationInProgress(cacheKey)) {
-                return Response.ok(createInfoResponse("Article generation already in progress")).build();
-            }
             IssueManager issueManager = ComponentAccessor.getIssueManager();
             Issue issue = issueManager.getIssueObject(issueKey);
             
@@ -155,46 +132,15 @@ public class ArticleController {
                     .entity(createErrorResponse("Issue not found"))
                     .build();
             }
-            articleService.markGenerationInProgress(cacheKey);
-            Map<String, Object> issueData = new HashMap<>();
-            issueData.put("key", issue.getKey());
-            issueData.put("summary", issue.getSummary());
-            issueData.put("description", issue.getDescription());
-            issueData.put("status", issue.getStatus().getName());
-            issueData.put("type", issue.getIssueType().getName());
-            issueData.put("projectKey", issue.getProjectObject().getKey());
-            String backendUrl = "http://host.docker.internal:5001/api/article/generate/" + issueKey;
-            
-            RequestBody body = RequestBody.create(
-                okhttp3.MediaType.parse("application/json"),
-                gson.toJson(issueData)
-            );
+            Map<String, Object> job = jobService.submit(issueKey, ArticleJobService.Trigger.MANUAL);
+            job.put("status", "queued");
+            return Response.status(Response.Status.ACCEPTED).entity(job).build();
             
-            Request request = new Request.Builder()
-                .url(backendUrl)
-                .post(body)
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .entity(createErrorResponse(e.getMessage()))
                 .build();
-            try (okhttp3.Response response = httpClient.newCall(request).execute()) {
-                String responseBody = response.body().string();
-                
-                if (response.isSuccessful()) {
-                    Map<String, Object> result = gson.fromJson(responseBody, Map.class);
-                    articleService.storeArticleData(issueKey, result);
-                    articleService.createNotification(issueKey, issue.getSummary());
-                    
-                    log.info("✅ Article generated and stored successfully");
-                    return Response.ok(result).build();
-                } else {
-                    log.error("Backend error: {} - {}", response.code(), responseBody);
-                    articleService.storeGenerationError(issueKey, "Backend error: " + response.code());
-                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(createErrorResponse("Failed to generate article"))
-                        .build();
-                }
-            } finally {
-                articleService.markGenerationComplete(cacheKey);
-            }
-            
         } catch (Exception e) {
             log.error("Error starting article generation", e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -203,6 +149,55 @@ public class ArticleController {
         }
     }
     
+    @GET
+    @Path("/{issueKey}/job")
+    @Produces(MediaType.APPLICATION_JSON)
+    @AnonymousAllowed
+    public Response getLatestJob(@PathParam("issueKey") String issueKey) {
+        Map<String, Object> job = jobService.getLatestJob(issueKey);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(createErrorResponse("No generation job for this issue"))
+                .build();
+        }
+        return Response.ok(job).build();
+    }
+    
+    @GET
+    @Path("/jobs/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getJobMetrics() {
+        return Response.ok(jobService.getMetrics()).build();
+    }
+    
+    @GET
+    @Path("/store/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStoreMetrics() {
+        return Response.ok(articleStore.getMetrics()).build();
+    }
+    
+    @GET
+    @Path("/leases/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getLeaseMetrics() {
+        return Response.ok(leaseService.getMetrics()).build();
+    }
+    
+    @GET
+    @Path("/jobs/{jobId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @AnonymousAllowed
+    public Response getJob(@PathParam("jobId") int jobId) {
+        Map<String, Object> job = jobService.getJob(jobId);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(createErrorResponse("Job not found"))
+                .build();
+        }
+        return Response.ok(job).build();
+    }
+    
     @POST
     @Path("/{issueKey}/feedback")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -221,14 +216,11 @@ public class ArticleController {
                     .entity(createErrorResponse("Invalid feedback data"))
                     .build();
             }
-            String healthUrl = "http://host.docker.internal:5001/health";
             try {
-                Request healthCheck = new Request.Builder()
-                    .url(healthUrl)
-                    .get()
-                    .build();
+                Request healthCheck = backendGateway.get("/health");
                 
-                try (okhttp3.Response healthResponse = httpClient.newCall(healthCheck).execute()) {
+                try (okhttp3.Response healthResponse = backendGateway.execute(
+                        BackendGateway.Endpoint.HEALTH, healthCheck)) {
                     if (!healthResponse.isSuccessful()) {
                         log.error("❌ Python backend health check failed: {}", healthResponse.code());
                         return Response.status(Response.Status.SERVICE_UNAVAILABLE)
@@ -242,26 +234,16 @@ public class ArticleController {
                     .entity(createErrorResponse("Cannot connect to backend service"))
                     .build();
             }
-            String backendUrl = "http://host.docker.internal:5001/api/article/feedback/" + issueKey;
-            log.info("📤 Forwarding to Python backend: {}", backendUrl);
-            
-            RequestBody body = RequestBody.create(
-                okhttp3.MediaType.parse("application/json"),
-                gson.toJson(feedbackData)
-            );
-            
-            Request request = new Request.Builder()
-                .url(backendUrl)
-                .post(body)
-                .build();
+            Request request = backendGateway.postJson(
+                "/api/article/feedback/" + issueKey, gson.toJson(feedbackData));
+            log.info("📤 Forwarding to Python backend: {}", request.url());
             
-            try (okhttp3.Response response = httpClient.newCall(request).execute()) {
-                String responseBody = response.body().string();
+            try (okhttp3.Response response = backendGateway.execute(
+                    BackendGateway.Endpoint.ARTICLE_FEEDBACK, request)) {
                 log.info("📨 Python backend response code: {}", response.code());
-                log.info("📨 Python backend response body: {}", responseBody);
                 
                 if (response.isSuccessful()) {
-                    Map<String, Object> result = gson.fromJson(responseBody, Map.class);
+                    Map<String, Object> result = gson.fromJson(response.body().charStream(), Map.class);
                     if (result.get("article") != null) {
                         log.info("💾 Updating local article storage");
                         articleService.storeArticleData(issueKey, result);
@@ -270,6 +252,7 @@ public class ArticleController {
                     log.info("✅ Feedback processed successfully");
                     return Response.ok(result).build();
                 } else {
+                    String responseBody = response.body().string();
                     log.error("❌ Python backend returned error: {} - {}", response.code(), responseBody);
                     
                     String errorMessage = "Failed to process feedback";
@@ -5,7 +5,9 @@ import com.atlassian.jira.issue.IssueManager;
 import com.atlassian.jira.issue.Issue;
 import com.atlassian.jira.event.type.EventType;
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
+import com.jurix.ai.api.BackendGateway;
 import com.jurix.ai.service.ArticleGenerationService;
+import com.jurix.ai.service.ArticleJobService;
 import com.jurix.ai.listener.IssueEventListener;
 import com.google.gson.Gson;
 import okhttp3.*;
@@ -19,7 +21,6 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 @Named
 @Path("/article-test")
@@ -30,16 +31,15 @@ public class ArticleTestController {
     private static final Logger log = LoggerFactory.getLogger(ArticleTestController.class);
     private final ArticleGenerationService articleService;
     private final Gson gson = new Gson();
-    private final OkHttpClient httpClient;
+    private final BackendGateway backendGateway;
+    private final ArticleJobService jobService;
     
     @Inject
-    public ArticleTestController(ArticleGenerationService articleService) {
+    public ArticleTestController(ArticleGenerationService articleService, BackendGateway backendGateway,
+                                 ArticleJobService jobService) {
         this.articleService = articleService;
-        this.httpClient = new OkHttpClient.Builder()
-            .connectTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .readTimeout(120, TimeUnit.SECONDS)
-            .build();
+        this.backendGateway = backendGateway;
+        this.jobService = jobService;
     }
     
     @GET
@@ -49,12 +49,13 @@ public class ArticleTestController {
     public Response getStatus() {
         Map<String, Object> status = new HashMap<>();
         status.put("articleService", articleService != null ? "LOADED" : "NULL");
-        status.put("httpClient", httpClient != null ? "LOADED" : "NULL");
+        status.put("backendGateway", backendGateway != null ? "LOADED" : "NULL");
+        status.put("articleJobs", jobService.getMetrics());
         status.put("time", System.currentTimeMillis());
         
         log.info("🔍 Article Test Status Check:");
         log.info("   ArticleService: {}", articleService);
-        log.info("   HttpClient: {}", httpClient);
+        log.info("   BackendGateway: {}", backendGateway);
         
         return Response.ok(status).build();
     }
@@ -86,75 +87,11 @@ public class ArticleTestController {
             log.info("   Status: {}", issue.getStatus().getName());
             log.info("   Type: {}", issue.getIssueType().getName());
             
-            String cacheKey = "article_generation:" + issue.getKey();
-            if (articleService.isArticleGenerationInProgress(cacheKey)) {
-                log.warn("⚠️ Article generation already in progress");
-                return Response.ok(createInfoResponse("Article generation already in progress")).build();
-            }
-            
-            log.info("🔄 Marking generation as in progress...");
-            articleService.markGenerationInProgress(cacheKey);
-            
-            Map<String, Object> issueData = new HashMap<>();
-            issueData.put("key", issue.getKey());
-            issueData.put("summary", issue.getSummary());
-            issueData.put("description", issue.getDescription());
-            issueData.put("status", issue.getStatus().getName());
-            issueData.put("type", issue.getIssueType().getName());
-            issueData.put("projectKey", issue.getProjectObject().getKey());
-            
-            if (issue.getResolution() != null) {
-                issueData.put("resolution", issue.getResolution().getName());
-            }
-            
-            log.info("📦 Prepared issue data: {}", gson.toJson(issueData));
-            
-            String articleGenUrl = "http://host.docker.internal:5001/api/article/generate/" + issue.getKey();
-            log.info("🌐 Calling URL: {}", articleGenUrl);
+            Map<String, Object> job = jobService.submit(issue.getKey(), ArticleJobService.Trigger.MANUAL);
+            log.info("📥 Article job {} is {}", job.get("jobId"), job.get("jobStatus"));
+            job.put("status", "queued");
             
-            RequestBody body = RequestBody.create(
-                okhttp3.MediaType.parse("application/json"),
-                gson.toJson(issueData)
-            );
-            
-            Request request = new Request.Builder()
-                .url(articleGenUrl)
-                .post(body)
-                .addHeader("Content-Type", "application/json")
-                .build();
-            
-            log.info("📤 Sending request to Python backend...");
-            
-            try (okhttp3.Response response = httpClient.newCall(request).execute()) {
-                log.info("📨 Response received: {}", response.code());
-                String responseBody = response.body().string();
-                log.info("📄 Response body length: {} chars", responseBody.length());
-                
-                if (response.isSuccessful()) {
-                    log.info("✅ Article generated successfully!");
-                    
-                    Map<String, Object> result = gson.fromJson(responseBody, Map.class);
-                    
-                    articleService.storeArticleData(issue.getKey(), result);
-                    log.info("💾 Article data stored");
-                    
-                    articleService.createNotification(issue.getKey(), issue.getSummary());
-                    log.info("🔔 Notification created");
-                    
-                    articleService.markGenerationComplete(cacheKey);
-                    
-                    return Response.ok(result).build();
-                } else {
-                    log.error("❌ Generation failed: {} - {}", response.code(), responseBody);
-                    articleService.storeGenerationError(issue.getKey(), 
-                        "Generation failed: " + response.code());
-                    articleService.markGenerationComplete(cacheKey);
-                    
-                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(createErrorResponse("Generation failed: " + response.code()))
-                        .build();
-                }
-            }
+            return Response.status(Response.Status.ACCEPTED).entity(job).build();
             
         } catch (Exception e) {
             log.error("❌ Critical error in article generation test", e);
@@ -173,13 +110,10 @@ public class ArticleTestController {
         log.info("🔍 Checking Python backend connection...");
         
         try {
-            String healthUrl = "http://host.docker.internal:5001/health";
-            Request request = new Request.Builder()
-                .url(healthUrl)
-                .get()
-                .build();
+            Request request = backendGateway.get("/health");
             
-            try (okhttp3.Response response = httpClient.newCall(request).execute()) {
+            try (okhttp3.Response response = backendGateway.execute(
+                    BackendGateway.Endpoint.HEALTH, request)) {
                 String body = response.body().string();
                 log.info("✅ Backend health check: {} - {}", response.code(), body);
                 
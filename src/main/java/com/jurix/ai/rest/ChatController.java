@@ -20,7 +20,10 @@ import org.slf4j.LoggerFactory;
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
 import com.atlassian.sal.api.user.UserManager;
 import com.atlassian.sal.api.user.UserProfile;
+import com.jurix.ai.api.BackendCallLimiter;
+import com.jurix.ai.api.BackendGateway;
 import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.service.ConversationContextStore;
 
 import org.codehaus.jackson.annotate.JsonProperty;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
@@ -35,12 +38,24 @@ public class ChatController {
     private final UserManager userManager;
     private final ChatService chatService;
     private final JurixConfiguration configuration;
+    private final BackendCallLimiter callLimiter;
+    private final ConversationContextStore contextStore;
     
     @Inject
-    public ChatController(UserManager userManager, ChatService chatService, JurixConfiguration configuration) {
+    public ChatController(UserManager userManager, ChatService chatService, JurixConfiguration configuration,
+                          BackendCallLimiter callLimiter, ConversationContextStore contextStore) {
         this.userManager = userManager;
         this.chatService = chatService;
         this.configuration = configuration;
+        this.callLimiter = callLimiter;
+        this.contextStore = contextStore;
+    }
+    
+    @GET
+    @Path("/context/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response contextMetrics() {
+        return Response.ok(contextStore.getMetrics()).build();
     }
     
     @GET
@@ -65,17 +80,30 @@ public class ChatController {
             log.info("Received chat request: {}", request.getQuery());
             UserProfile currentUser = userManager.getRemoteUser();
             String username = currentUser != null ? currentUser.getUsername() : "anonymous";
+            String userKey = currentUser != null ? currentUser.getUserKey().getStringValue() : null;
             if (request.getQuery() == null || request.getQuery().trim().isEmpty()) {
                 return Response.status(Response.Status.BAD_REQUEST)
                     .entity(createErrorResponse("Query cannot be empty"))
                     .build();
             }
             
-            ChatResponse response = chatService.sendChatMessage(
-                request.getQuery(),
-                request.getConversationId(),
-                username
-            );
+            if (!callLimiter.tryAcquire(BackendGateway.Endpoint.CHAT)) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .entity(createErrorResponse("Too many chat requests in progress, please retry shortly"))
+                    .build();
+            }
+            ChatResponse response;
+            try {
+                response = chatService.sendChatMessage(
+                    request.getQuery(),
+                    request.getConversationId(),
+                    username,
+                    userKey
+                );
+            } finally {
+                callLimiter.release(BackendGateway.Endpoint.CHAT);
+            }
             log.info("Successfully generated response for query");
             return Response.ok(response).build();
             
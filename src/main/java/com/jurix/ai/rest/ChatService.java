@@ -3,101 +3,317 @@ package com.jurix.ai.rest;
 import javax.inject.Named;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.map.DeserializationConfig;
-import okhttp3.OkHttpClient;
+import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
-import okhttp3.MediaType;
+import okio.BufferedSource;
 
+import com.jurix.ai.api.BackendGateway;
 import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.service.ArticleIndex;
+import com.jurix.ai.service.ArticleVectorStore;
+import com.jurix.ai.service.ConversationContextStore;
 
 
 @Named
 public class ChatService {
     private static final Logger log = LoggerFactory.getLogger(ChatService.class);
+    private static final int LOCAL_CHAT_ARTICLES = 3;
     
-    private static final int TIMEOUT_SECONDS = 120; 
-    
-    private final OkHttpClient httpClient;
+    private final BackendGateway backendGateway;
     private final ObjectMapper objectMapper;
     private final JurixConfiguration configuration;
+    private final ArticleVectorStore articleVectors;
+    private final ConversationContextStore contextStore;
     
     @Inject
-    public ChatService(JurixConfiguration configuration) {
+    public ChatService(JurixConfiguration configuration, BackendGateway backendGateway,
+                       ArticleVectorStore articleVectors, ConversationContextStore contextStore) {
         this.configuration = configuration;
-        this.httpClient = new OkHttpClient.Builder()
-            .connectTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-            .build();
+        this.backendGateway = backendGateway;
+        this.articleVectors = articleVectors;
+        this.contextStore = contextStore;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
     
-    public ChatController.ChatResponse sendChatMessage(String query, String conversationId, String username) 
-            throws IOException {
+    public ChatController.ChatResponse sendChatMessage(String query, String conversationId, String username,
+                                                      String userKey) throws IOException {
         
         log.info("Sending chat message to Python backend: conversationId={}, username={}", 
                 conversationId, username);
         log.info("Backend URL: {}", configuration.getBackendUrl());
 
-        Map<String, Object> requestData = new HashMap<>();
-        requestData.put("query", query);
-        requestData.put("conversationId", conversationId);
+        Request request = buildChatRequest(query, conversationId, userKey);
+        
+        try (Response response = backendGateway.execute(BackendGateway.Endpoint.CHAT, request)) {
+            return completeTurn(readChatResponse(response, conversationId), query, userKey);
+        }
+    }
+
+    public Request buildChatRequest(String query, String conversationId, String userKey) throws IOException {
+        Map<String, Object> requestData = newRequestData(query, conversationId, userKey);
 
         String jsonPayload = objectMapper.writeValueAsString(requestData);
         log.debug("Request payload: {}", jsonPayload);
  
-        RequestBody body = RequestBody.create(
-            MediaType.parse("application/json; charset=utf-8"), 
-            jsonPayload
-        );
+        return backendGateway.postJson("/api/chat", jsonPayload);
+    }
+
+    /**
+     * Decodes a successful /api/chat response straight from the body stream into the
+     * backend DTO, without first copying it into a String. Error bodies are small and
+     * are still read whole so their message can be reported.
+     */
+    public ChatController.ChatResponse readChatResponse(Response response, String conversationId)
+            throws IOException {
+        if (!response.isSuccessful()) {
+            return readChatResponse(response.code(), response.body().string(), conversationId);
+        }
+        log.info("Response code from backend: {}", response.code());
+        PythonBackendResponse backendResponse;
+        try (InputStream body = response.body().byteStream()) {
+            backendResponse = objectMapper.readValue(body, PythonBackendResponse.class);
+        }
+        return transformResponse(backendResponse, conversationId);
+    }
+
+    public ChatController.ChatResponse readChatResponse(int statusCode, String responseBody, String conversationId)
+            throws IOException {
+        log.info("Response code from backend: {}", statusCode);
         
-        Request request = new Request.Builder()
-            .url(configuration.getBackendUrl() + "/api/chat")
-            .post(body)
-            .addHeader("Content-Type", "application/json")
-            .addHeader("Accept", "application/json")
-            .build();
+        if (statusCode < 200 || statusCode >= 300) {
+            log.error("Python backend returned error: {} - Body: {}", 
+                statusCode, responseBody);
+            try {
+                Map<String, Object> errorResponse = objectMapper.readValue(
+                    responseBody, Map.class);
+                String errorMessage = (String) errorResponse.get("error");
+                throw new IOException("Backend error: " + statusCode + 
+                    " - " + (errorMessage != null ? errorMessage : "Unknown error"));
+            } catch (Exception e) {
+                throw new IOException("Backend error: " + statusCode + 
+                    " - Response: " + responseBody);
+            }
+        }
+        log.info("Successfully received response from Python backend");
+        log.debug("Response from Python backend: {}", responseBody);
         
-        try (Response response = httpClient.newCall(request).execute()) {
-            String responseBody = response.body().string();
-            log.info("Response code from backend: {}", response.code());
-            
-            if (!response.isSuccessful()) {
-                log.error("Python backend returned error: {} - Body: {}", 
-                    response.code(), responseBody);
-                try {
-                    Map<String, Object> errorResponse = objectMapper.readValue(
-                        responseBody, Map.class);
-                    String errorMessage = (String) errorResponse.get("error");
-                    throw new IOException("Backend error: " + response.code() + 
-                        " - " + (errorMessage != null ? errorMessage : "Unknown error"));
-                } catch (Exception e) {
-                    throw new IOException("Backend error: " + response.code() + 
-                        " - Response: " + responseBody);
+        PythonBackendResponse backendResponse = objectMapper.readValue(
+            responseBody, 
+            PythonBackendResponse.class
+        );
+        return transformResponse(backendResponse, conversationId);
+    }
+    
+    /**
+     * Finishes a turn once the backend has answered: fills in local articles if needed
+     * and records the question and answer in the conversation's context. Truncated
+     * (partial) answers are not recorded.
+     */
+    public ChatController.ChatResponse completeTurn(ChatController.ChatResponse response, String query,
+                                                    String userKey) {
+        attachLocalArticles(response, query);
+        if (!"partial".equals(response.getWorkflowStatus())) {
+            contextStore.recordTurn(userKey, response.getConversationId(), query, response.getResponse());
+        }
+        return response;
+    }
+
+    /**
+     * Request fields shared by /api/chat and /api/chat/stream. The {@code context} of the
+     * conversation, when this node has it, carries a summary of older turns, the recent
+     * turns and the number of turns it covers; the backend can skip its history lookup
+     * when that number matches its own. Only the user who started the conversation gets
+     * its context.
+     */
+    private Map<String, Object> newRequestData(String query, String conversationId, String userKey) {
+        Map<String, Object> requestData = new HashMap<>();
+        requestData.put("query", query);
+        requestData.put("conversationId", conversationId);
+        Map<String, Object> context = contextStore.contextFor(userKey, conversationId);
+        if (context != null) {
+            requestData.put("context", context);
+        }
+        if (articleVectors.isReady()) {
+            requestData.put("skip_article_search", true);
+        }
+        return requestData;
+    }
+
+    /**
+     * Fills the {@code articles} of an answer from the local {@link ArticleVectorStore}
+     * when the backend sent none, which it does not when asked to skip its own article
+     * search. Answers that already carry articles are returned unchanged.
+     */
+    private ChatController.ChatResponse attachLocalArticles(ChatController.ChatResponse response, String query) {
+        if ((response.getArticles() != null && !response.getArticles().isEmpty()) || !articleVectors.isReady()) {
+            return response;
+        }
+        List<ChatController.Article> articles = new ArrayList<>();
+        for (ArticleIndex.Hit hit : articleVectors.findSimilar(query, null, LOCAL_CHAT_ARTICLES,
+                configuration.getSuggestionVectorMinSimilarityPercent() / 100.0)) {
+            ChatController.Article article = new ChatController.Article();
+            article.setTitle(hit.getTitle());
+            article.setContent(hit.getPreview());
+            article.setRelevanceScore(hit.getRelevance());
+            articles.add(article);
+        }
+        if (!articles.isEmpty()) {
+            response.setArticles(articles);
+        }
+        return response;
+    }
+
+    /**
+     * Receives a streamed chat answer as it arrives. Tokens are delivered in order, and
+     * {@link #onComplete} is called once with the structured answer.
+     */
+    public interface ChatStreamListener {
+        void onToken(String text) throws IOException;
+        void onComplete(ChatController.ChatResponse response) throws IOException;
+    }
+
+    public Request buildChatStreamRequest(String query, String conversationId, String userKey) throws IOException {
+        Map<String, Object> requestData = newRequestData(query, conversationId, userKey);
+        requestData.put("stream", true);
+
+        return new Request.Builder()
+            .url(backendGateway.url("/api/chat/stream"))
+            .post(RequestBody.create(BackendGateway.JSON, objectMapper.writeValueAsString(requestData)))
+            .addHeader("Accept", "text/event-stream, application/json")
+            .build();
+    }
+
+    /**
+     * Relays a /api/chat/stream response to {@code listener} without buffering the body.
+     * The backend is expected to send Server-Sent Events: {@code token} events carrying a
+     * piece of the answer, and a closing {@code final} event carrying the same JSON as
+     * /api/chat. A backend that answers with plain JSON is relayed as one token followed
+     * by the final answer; one without the stream endpoint (404) is asked via /api/chat.
+     */
+    public void relayChatStream(Response response, String query, String conversationId, String userKey,
+                                ChatStreamListener target) throws IOException {
+        ChatStreamListener listener = new ChatStreamListener() {
+            @Override
+            public void onToken(String text) throws IOException {
+                target.onToken(text);
+            }
+
+            @Override
+            public void onComplete(ChatController.ChatResponse chatResponse) throws IOException {
+                target.onComplete(completeTurn(chatResponse, query, userKey));
+            }
+        };
+        if (response.code() == 404 || response.code() == 405) {
+            log.info("Backend has no streaming chat endpoint, falling back to /api/chat");
+            try (Response fallback = backendGateway.execute(BackendGateway.Endpoint.CHAT,
+                    buildChatRequest(query, conversationId, userKey))) {
+                emitWhole(readChatResponse(fallback, conversationId), listener);
+            }
+            return;
+        }
+        MediaType contentType = response.body().contentType();
+        if (!response.isSuccessful() || contentType == null || !"event-stream".equals(contentType.subtype())) {
+            emitWhole(readChatResponse(response, conversationId), listener);
+            return;
+        }
+
+        BufferedSource source = response.body().source();
+        StringBuilder answer = new StringBuilder();
+        StringBuilder data = new StringBuilder();
+        String event = "message";
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+                if (data.length() > 0 && dispatchStreamEvent(event, data.toString(), answer, conversationId, listener)) {
+                    return;
+                }
+                data.setLength(0);
+                event = "message";
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) {
+                    data.append('\n');
                 }
+                data.append(line.startsWith("data: ") ? line.substring(6) : line.substring(5));
             }
-            log.info("Successfully received response from Python backend");
-            log.debug("Response from Python backend: {}", responseBody);
-            
-            PythonBackendResponse backendResponse = objectMapper.readValue(
-                responseBody, 
-                PythonBackendResponse.class
-            );
-            return transformResponse(backendResponse, conversationId);
         }
+        if (data.length() > 0 && dispatchStreamEvent(event, data.toString(), answer, conversationId, listener)) {
+            return;
+        }
+
+        // The stream ended without a final event; close it with what was streamed so far.
+        log.warn("Chat stream for conversation {} ended without a final event", conversationId);
+        ChatController.ChatResponse partial = new ChatController.ChatResponse();
+        partial.setResponse(answer.toString());
+        partial.setConversationId(conversationId);
+        partial.setWorkflowStatus("partial");
+        listener.onComplete(partial);
+    }
+
+    /**
+     * Handles one SSE event and returns {@code true} once the final answer was delivered.
+     */
+    private boolean dispatchStreamEvent(String event, String data, StringBuilder answer, String conversationId,
+                                        ChatStreamListener listener) throws IOException {
+        switch (event) {
+            case "final":
+            case "done":
+                PythonBackendResponse backendResponse = objectMapper.readValue(data, PythonBackendResponse.class);
+                if (backendResponse.getResponse() == null) {
+                    backendResponse.setResponse(answer.toString());
+                }
+                listener.onComplete(transformResponse(backendResponse, conversationId));
+                return true;
+            case "error":
+                throw new IOException("Backend stream error: " + data);
+            default:
+                String token = extractToken(data);
+                if (token != null && !token.isEmpty()) {
+                    answer.append(token);
+                    listener.onToken(token);
+                }
+                return false;
+        }
+    }
+
+    private String extractToken(String data) {
+        if (!data.startsWith("{")) {
+            return data;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(data);
+            for (String field : new String[] {"token", "text", "delta", "content"}) {
+                if (node.has(field)) {
+                    return node.get(field).getTextValue();
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            return data;
+        }
+    }
+
+    private void emitWhole(ChatController.ChatResponse response, ChatStreamListener listener) throws IOException {
+        if (response.getResponse() != null) {
+            listener.onToken(response.getResponse());
+        }
+        listener.onComplete(response);
     }
     
     private ChatController.ChatResponse transformResponse(
@@ -6,22 +6,25 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.POST;
-import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
 import com.atlassian.sal.api.user.UserManager;
+import com.jurix.ai.api.BackendCallLimiter;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.api.BackendProxy;
+import com.jurix.ai.api.DashboardFetcher;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.service.DashboardService;
 import javax.ws.rs.Consumes;
 
 @Named
@@ -32,47 +35,44 @@ public class DashboardController {
     private static final Logger log = LoggerFactory.getLogger(DashboardController.class);
     
     private final UserManager userManager;
+    private final BackendGateway backendGateway;
+    private final DashboardFetcher dashboardFetcher;
+    private final DashboardService dashboardService;
+    private final BackendCallLimiter callLimiter;
+    private final BackendProxy backendProxy;
+    private final JurixConfiguration configuration;
     
     @Inject
-    public DashboardController(UserManager userManager) {
+    public DashboardController(UserManager userManager, BackendGateway backendGateway,
+                               DashboardFetcher dashboardFetcher, DashboardService dashboardService,
+                               BackendCallLimiter callLimiter, BackendProxy backendProxy,
+                               JurixConfiguration configuration) {
         this.userManager = userManager;
+        this.backendGateway = backendGateway;
+        this.dashboardFetcher = dashboardFetcher;
+        this.dashboardService = dashboardService;
+        this.callLimiter = callLimiter;
+        this.backendProxy = backendProxy;
+        this.configuration = configuration;
     }
     
     @GET
     @Path("/{projectKey}")
     @Produces(MediaType.APPLICATION_JSON)
     @AnonymousAllowed
-    public Response getDashboardData(@PathParam("projectKey") String projectKey) {
+    public Response getDashboardData(@PathParam("projectKey") String projectKey, @Context HttpHeaders headers) {
         try {
             log.info("Dashboard data requested for project: {}", projectKey);
             
-            String pythonUrl = "http://host.docker.internal:5001/api/dashboard/" + projectKey;
-            URL url = new URL(pythonUrl);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setConnectTimeout(30000);
-            conn.setReadTimeout(120000);
-            
-            int responseCode = conn.getResponseCode();
-            log.info("Python backend response code: {}", responseCode);
-
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(
-                        responseCode >= 200 && responseCode < 300 ? 
-                        conn.getInputStream() : conn.getErrorStream(), "utf-8"))) {
-                String responseLine;
-                while ((responseLine = br.readLine()) != null) {
-                    response.append(responseLine.trim());
-                }
+            if (configuration.isDashboardPassThrough()) {
+                return relayDashboard(projectKey, headers);
             }
             
-            conn.disconnect();
-            return Response.ok(response.toString())
+            DashboardService.CachedDashboard dashboard = dashboardService.getDashboard(projectKey);
+            
+            return Response.ok(dashboard.getBody())
                 .header("Content-Type", "application/json")
+                .header("X-Jurix-Cache", dashboard.getStatus().name())
                 .build();
             
         } catch (Exception e) {
@@ -94,49 +94,35 @@ public class DashboardController {
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
     @AnonymousAllowed
-    public Response generateForecast(@PathParam("projectKey") String projectKey, String requestBody) {
+    public Response generateForecast(@PathParam("projectKey") String projectKey, String requestBody,
+                                     @Context HttpHeaders headers) {
         try {
             log.info("Forecast requested for project: {} with body: {}", projectKey, requestBody);
             
-            String pythonUrl = "http://host.docker.internal:5001/api/forecast/" + projectKey;
-            URL url = new URL(pythonUrl);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(30000);
-            conn.setReadTimeout(120000);
-            
-            if (requestBody != null && !requestBody.isEmpty()) {
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = requestBody.getBytes("utf-8");
-                    os.write(input, 0, input.length);
-                }
+            if (!callLimiter.tryAcquire(BackendGateway.Endpoint.FORECAST)) {
+                Map<String, Object> busyResponse = new HashMap<>();
+                busyResponse.put("status", "error");
+                busyResponse.put("error", "Too many forecasts in progress, please retry shortly");
+                busyResponse.put("type", "forecast");
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .entity(busyResponse)
+                    .build();
             }
             
-            int responseCode = conn.getResponseCode();
-            log.info("Python backend response code: {}", responseCode);
-      
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(
-                        responseCode >= 200 && responseCode < 300 ? 
-                        conn.getInputStream() : conn.getErrorStream(), "utf-8"))) {
-                String responseLine;
-                while ((responseLine = br.readLine()) != null) {
-                    response.append(responseLine.trim());
-                }
+            okhttp3.Response backendResponse;
+            try {
+                backendResponse = backendGateway.execute(
+                    BackendGateway.Endpoint.FORECAST,
+                    prepare(backendGateway.postJson("/api/forecast/" + projectKey, requestBody), headers));
+            } catch (Exception e) {
+                callLimiter.release(BackendGateway.Endpoint.FORECAST);
+                throw e;
             }
+            log.info("Python backend response code: {}", backendResponse.code());
             
-            log.info("Python backend response: {}", response.toString());
-            
-            conn.disconnect();
-            
-            return Response.ok(response.toString())
-                .header("Content-Type", "application/json")
-                .build();
+            // The limiter slot is held until the forecast has been streamed to the client.
+            return backendProxy.relay(backendResponse, () -> callLimiter.release(BackendGateway.Endpoint.FORECAST));
                 
         } catch (Exception e) {
             log.error("Error generating forecast", e);
@@ -152,6 +138,40 @@ public class DashboardController {
         }
     }
     
+    /**
+     * Pass-through mode: skips the dashboard cache and relays the backend's answer,
+     * compressed body and validators included, straight to the client.
+     */
+    private Response relayDashboard(String projectKey, HttpHeaders headers) throws Exception {
+        okhttp3.Response backendResponse = backendGateway.execute(
+            BackendGateway.Endpoint.DASHBOARD,
+            prepare(backendGateway.get("/api/dashboard/" + projectKey), headers));
+        log.info("Python backend dashboard response code for {}: {}", projectKey, backendResponse.code());
+        if (!backendProxy.isRelayable(backendResponse)) {
+            backendResponse.close();
+            throw new IllegalStateException("Backend returned " + backendResponse.code());
+        }
+        return Response.fromResponse(backendProxy.relay(backendResponse, () -> { }))
+            .header("X-Jurix-Cache", "BYPASS")
+            .build();
+    }
+    
+    private okhttp3.Request prepare(okhttp3.Request request, HttpHeaders headers) {
+        return backendProxy.prepare(request,
+            headers.getRequestHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING),
+            headers.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+    
+    @GET
+    @Path("/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("cache", dashboardService.getMetrics());
+        metrics.put("fetcher", dashboardFetcher.getMetrics());
+        return Response.ok(metrics).build();
+    }
+    
     @GET
     @Path("/test")
     @Produces(MediaType.APPLICATION_JSON)
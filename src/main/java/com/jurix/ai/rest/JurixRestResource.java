@@ -1,27 +1,34 @@
 package com.jurix.ai.rest;
 
 import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.permission.GlobalPermissionKey;
 import com.atlassian.jira.security.JiraAuthenticationContext;
 import com.atlassian.jira.user.ApplicationUser;
 import com.atlassian.jira.issue.IssueManager;
 import com.atlassian.jira.issue.MutableIssue;
 import com.google.gson.Gson;
+import com.jurix.ai.api.BackendCallLimiter;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.api.BackendProxy;
+import com.jurix.ai.api.DashboardFetcher;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.listener.IssueEventListener;
+import com.jurix.ai.service.ArticleJobService;
+import okhttp3.Request;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
+import javax.inject.Named;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Arrays;
 import java.util.UUID;
 
+@Named
 @Path("/")
 @Consumes({MediaType.APPLICATION_JSON})
 @Produces({MediaType.APPLICATION_JSON})
@@ -29,8 +36,27 @@ public class JurixRestResource {
     
     private static final Logger log = LoggerFactory.getLogger(JurixRestResource.class);
     private final Gson gson = new Gson();
+    private final BackendGateway backendGateway;
+    private final IssueEventListener issueEventListener;
+    private final DashboardFetcher dashboardFetcher;
+    private final BackendCallLimiter callLimiter;
+    private final ArticleJobService jobService;
+    private final JurixConfiguration configuration;
+    private final BackendProxy backendProxy;
     
-    private static final String BACKEND_API_URL = "http://host.docker.internal:5001";
+    @Inject
+    public JurixRestResource(BackendGateway backendGateway, IssueEventListener issueEventListener,
+                             DashboardFetcher dashboardFetcher, BackendCallLimiter callLimiter,
+                             ArticleJobService jobService, JurixConfiguration configuration,
+                             BackendProxy backendProxy) {
+        this.backendGateway = backendGateway;
+        this.issueEventListener = issueEventListener;
+        this.dashboardFetcher = dashboardFetcher;
+        this.callLimiter = callLimiter;
+        this.jobService = jobService;
+        this.configuration = configuration;
+        this.backendProxy = backendProxy;
+    }
     
     @GET
     @Path("/health")
@@ -39,16 +65,9 @@ public class JurixRestResource {
         status.put("status", "healthy");
         status.put("version", "1.0.0");
         status.put("timestamp", System.currentTimeMillis());
-        try {
-            URL url = new URL(BACKEND_API_URL + "/health");
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
-            
-            int responseCode = conn.getResponseCode();
-            status.put("backend_connected", responseCode == 200);
-            
-            conn.disconnect();
+        try (okhttp3.Response response = backendGateway.execute(
+                BackendGateway.Endpoint.HEALTH, backendGateway.get("/health"))) {
+            status.put("backend_connected", response.code() == 200);
         } catch (Exception e) {
             status.put("backend_connected", false);
             status.put("backend_error", e.getMessage());
@@ -57,6 +76,59 @@ public class JurixRestResource {
         return Response.ok(status).build();
     }
     
+    @GET
+    @Path("/backend/metrics")
+    public Response backendMetrics() {
+        return Response.ok(backendGateway.getMetrics()).build();
+    }
+    
+    @GET
+    @Path("/backend/limits")
+    public Response backendLimits() {
+        return Response.ok(callLimiter.getMetrics()).build();
+    }
+    
+    @GET
+    @Path("/backend/proxy")
+    public Response backendProxyMetrics() {
+        return Response.ok(backendProxy.getMetrics()).build();
+    }
+    
+    @GET
+    @Path("/config/backend-url")
+    public Response getBackendUrl() {
+        if (!isAdmin()) {
+            return adminRequired();
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("backendUrl", configuration.getBackendUrl());
+        return Response.ok(result).build();
+    }
+    
+    @PUT
+    @Path("/config/backend-url")
+    public Response setBackendUrl(Map<String, Object> body) {
+        if (!isAdmin()) {
+            return adminRequired();
+        }
+        Object url = body != null ? body.get("backendUrl") : null;
+        if (url != null && !url.toString().trim().isEmpty()
+                && !url.toString().trim().matches("(?i)^https?://.+")) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("error", "backendUrl must be an http(s) URL");
+            return Response.status(Response.Status.BAD_REQUEST).entity(error).build();
+        }
+        configuration.setBackendUrl(url != null ? url.toString() : null);
+        return getBackendUrl();
+    }
+    
+    @GET
+    @Path("/events/metrics")
+    public Response eventMetrics() {
+        return Response.ok(issueEventListener.getEventMetrics()).build();
+    }
+    
     @POST
     @Path("/chat")
     public Response chat(Map<String, Object> requestMap) {
@@ -75,8 +147,17 @@ public class JurixRestResource {
         
         log.info("Chat request received - Query: {}, ConversationId: {}", query, conversationId);
         
+        if (!callLimiter.tryAcquire(BackendGateway.Endpoint.CHAT)) {
+            Map<String, Object> busy = new HashMap<>();
+            busy.put("status", "error");
+            busy.put("error", "Too many chat requests in progress, please retry shortly");
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .entity(busy)
+                .build();
+        }
         try {
-            Map<String, Object> backendResponse = callBackendAPI("/api/chat", "POST", requestMap);
+            Map<String, Object> backendResponse = callBackendAPI(BackendGateway.Endpoint.CHAT, "/api/chat", "POST", requestMap);
             
             return Response.ok(backendResponse).build();
             
@@ -89,6 +170,8 @@ public class JurixRestResource {
             errorResponse.put("error", e.getMessage());
             
             return Response.ok(errorResponse).build();
+        } finally {
+            callLimiter.release(BackendGateway.Endpoint.CHAT);
         }
     }
     
@@ -105,7 +188,7 @@ public class JurixRestResource {
         log.info("Dashboard refresh request for project: {}", projectKey);
         
         try {
-            Map<String, Object> backendResponse = callBackendAPI("/api/dashboard/" + projectKey, "GET", null);
+            Map<String, Object> backendResponse = gson.fromJson(dashboardFetcher.fetch(projectKey).getBody(), Map.class);
             Map<String, Object> dashboard = new HashMap<>();
             dashboard.put("projectId", projectKey);
             dashboard.put("metrics", backendResponse.get("metrics"));
@@ -139,47 +222,11 @@ public class JurixRestResource {
                 response.put("message", "Issue not found");
                 return Response.status(404).entity(response).build();
             }
-            Map<String, Object> issueData = new HashMap<>();
-            issueData.put("key", issue.getKey());
-            issueData.put("summary", issue.getSummary());
-            issueData.put("description", issue.getDescription());
-            issueData.put("status", issue.getStatus().getName());
-            issueData.put("type", issue.getIssueType().getName());
-            issueData.put("projectKey", issue.getProjectObject().getKey());
-            String pythonUrl = "http://host.docker.internal:5001/api/article/generate/" + issueKey;
+            Map<String, Object> job = jobService.submit(issueKey, ArticleJobService.Trigger.MANUAL);
+            response.putAll(job);
+            response.put("status", "success");
             
-            URL url = new URL(pythonUrl);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(30000);
-            try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = gson.toJson(issueData).getBytes("utf-8");
-                os.write(input, 0, input.length);
-            }
-            int responseCode = conn.getResponseCode();
-            log.error("PYTHON RESPONSE CODE: " + responseCode); 
- 
-            StringBuilder responseBody = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(
-                        responseCode >= 200 && responseCode < 300 ? 
-                        conn.getInputStream() : conn.getErrorStream(), "utf-8"))) {
-                String responseLine;
-                while ((responseLine = br.readLine()) != null) {
-                    responseBody.append(responseLine.trim());
-                }
-            }
-            
-            response.put("pythonResponse", responseBody.toString());
-            response.put("pythonStatusCode", responseCode);
-            response.put("status", responseCode == 200 ? "success" : "error");
-            
-            conn.disconnect();
-            
-            log.error("ARTICLE GENERATION COMPLETE: " + response); 
+            log.info("ARTICLE GENERATION QUEUED: {}", response);
             
         } catch (Exception e) {
             log.error("ARTICLE GENERATION ERROR", e);
@@ -191,46 +238,32 @@ public class JurixRestResource {
     }
     
 
-    private Map<String, Object> callBackendAPI(String endpoint, String method, Map<String, Object> payload) throws Exception {
-        URL url = new URL(BACKEND_API_URL + endpoint);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    private Map<String, Object> callBackendAPI(BackendGateway.Endpoint endpoint, String path, String method,
+                                               Map<String, Object> payload) throws Exception {
+        Request request = "POST".equals(method)
+            ? backendGateway.postJson(path, payload != null ? gson.toJson(payload) : "")
+            : backendGateway.get(path);
         
-        try {
-            conn.setRequestMethod(method);
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setConnectTimeout(180000);
-            conn.setReadTimeout(180000);
-            
-            if ("POST".equals(method) && payload != null) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = gson.toJson(payload).getBytes("utf-8");
-                    os.write(input, 0, input.length);
-                }
-            }
-            
-            int responseCode = conn.getResponseCode();
-            log.info("Backend API response code: {}", responseCode);
-
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(
-                        responseCode >= 200 && responseCode < 300 ? 
-                        conn.getInputStream() : conn.getErrorStream(), "utf-8"))) {
-                String responseLine;
-                while ((responseLine = br.readLine()) != null) {
-                    response.append(responseLine.trim());
-                }
-            }
-
-            return gson.fromJson(response.toString(), Map.class);
-            
-        } finally {
-            conn.disconnect();
+        try (okhttp3.Response response = backendGateway.execute(endpoint, request)) {
+            log.info("Backend API response code: {}", response.code());
+            return gson.fromJson(response.body().charStream(), Map.class);
         }
     }
     
+    // The backend URL is configuration: only administrators may read or change it.
+    private boolean isAdmin() {
+        ApplicationUser user = ComponentAccessor.getJiraAuthenticationContext().getLoggedInUser();
+        return user != null && ComponentAccessor.getGlobalPermissionManager()
+            .hasPermission(GlobalPermissionKey.ADMINISTER, user);
+    }
+    
+    private Response adminRequired() {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("error", "Administrator permission required");
+        return Response.status(Response.Status.FORBIDDEN).entity(error).build();
+    }
+    
     private Map<String, Object> createMockDashboard(String projectKey) {
         Map<String, Object> dashboard = new HashMap<>();
         dashboard.put("projectId", projectKey);
@@ -2,26 +2,28 @@ package com.jurix.ai.rest;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
-import com.atlassian.jira.component.ComponentAccessor;
-import com.atlassian.jira.issue.IssueManager;
-import com.atlassian.jira.issue.MutableIssue;
-import com.atlassian.jira.issue.label.Label;
-import com.atlassian.jira.bc.project.component.ProjectComponent;
-import okhttp3.*;
+import com.atlassian.jira.issue.Issue;
 import com.google.gson.Gson;
+import okhttp3.Call;
+import com.jurix.ai.api.BackendCallLimiter;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.api.BackendProxy;
+import com.jurix.ai.service.SuggestionCache;
+import com.jurix.ai.service.SuggestionRequestTracker;
+import com.jurix.ai.service.SuggestionService;
 
 @Named
 @Path("/suggestions")
@@ -30,11 +32,23 @@ import com.google.gson.Gson;
 public class SmartSuggestionsController {
     private static final Logger log = LoggerFactory.getLogger(SmartSuggestionsController.class);
     private final Gson gson = new Gson();
-    private final OkHttpClient httpClient;
+    private final BackendGateway backendGateway;
+    private final BackendCallLimiter callLimiter;
+    private final SuggestionService suggestionService;
+    private final BackendProxy backendProxy;
+    private final SuggestionCache suggestionCache;
+    private final SuggestionRequestTracker requestTracker;
     
     @Inject
-    public SmartSuggestionsController() {
-        this.httpClient = new OkHttpClient.Builder().build();
+    public SmartSuggestionsController(BackendGateway backendGateway, BackendCallLimiter callLimiter,
+                                      SuggestionService suggestionService, BackendProxy backendProxy,
+                                      SuggestionCache suggestionCache, SuggestionRequestTracker requestTracker) {
+        this.backendGateway = backendGateway;
+        this.callLimiter = callLimiter;
+        this.suggestionService = suggestionService;
+        this.backendProxy = backendProxy;
+        this.suggestionCache = suggestionCache;
+        this.requestTracker = requestTracker;
     }
     
     @POST
@@ -42,13 +56,13 @@ public class SmartSuggestionsController {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @AnonymousAllowed
-    public Response getSuggestionsForIssue(Map<String, Object> requestData) {
+    public Response getSuggestionsForIssue(Map<String, Object> requestData, @Context HttpHeaders headers,
+                                           @Context HttpServletRequest httpRequest) {
         try {
             String issueKey = (String) requestData.get("issue_key");
             log.info("Getting suggestions for issue: {}", issueKey);
 
-            IssueManager issueManager = ComponentAccessor.getIssueManager();
-            MutableIssue issue = issueManager.getIssueObject(issueKey);
+            Issue issue = suggestionService.findIssue(issueKey);
             
             if (issue == null) {
                 log.error("Issue not found: {}", issueKey);
@@ -56,64 +70,78 @@ public class SmartSuggestionsController {
                     .entity(createErrorResponse("Issue not found"))
                     .build();
             }
-  
-            Map<String, Object> issueData = new HashMap<>();
-            issueData.put("issue_key", issueKey);
-            issueData.put("issue_summary", issue.getSummary() != null ? issue.getSummary() : "");
-            issueData.put("issue_description", issue.getDescription() != null ? issue.getDescription() : "");
-            issueData.put("issue_type", issue.getIssueType() != null ? issue.getIssueType().getName() : "");
-            issueData.put("issue_status", issue.getStatus() != null ? issue.getStatus().getName() : "");
 
-            List<String> labels = issue.getLabels().stream()
-                .map(Label::getLabel)
-                .collect(Collectors.toList());
-            issueData.put("labels", labels);
-
-            List<String> components = issue.getComponents().stream()
-                .map(ProjectComponent::getName)
-                .collect(Collectors.toList());
-            issueData.put("components", components);
-
-            if (issue.getPriority() != null) {
-                issueData.put("priority", issue.getPriority().getName());
+            String acceptEncoding = headers.getRequestHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+            String ifNoneMatch = headers.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            String cacheKey = suggestionCache.key(issue, backendProxy.acceptsGzip(acceptEncoding));
+            BackendProxy.CapturedBody cached = suggestionCache.get(cacheKey);
+            if (cached != null) {
+                log.info("Serving cached suggestions for issue: {}", issueKey);
+                return Response.fromResponse(backendProxy.replay(cached, ifNoneMatch))
+                    .header("X-Jurix-Cache", "HIT")
+                    .build();
             }
 
-            if (issue.getAssignee() != null) {
-                issueData.put("assignee", issue.getAssignee().getDisplayName());
+            SuggestionService.LocalSuggestions local = suggestionService.suggestLocally(issue);
+            if (local != null && local.isConfident()) {
+                log.info("Serving local suggestions for issue: {}", issueKey);
+                return Response.ok(suggestionService.toResponse(local))
+                    .header(SuggestionService.PATH_HEADER, local.getPath())
+                    .build();
             }
+            String path = local != null ? local.getPath() : SuggestionService.PATH_BACKEND;
 
-            issueData.put("project_key", issue.getProjectObject().getKey());
-            
-            log.info("Issue data extracted: summary='{}', type='{}', status='{}', labels={}, components={}", 
-                issue.getSummary(), 
-                issue.getIssueType().getName(),
-                issue.getStatus().getName(),
-                labels,
-                components
-            );
+            SuggestionRequestTracker.Ticket ticket = requestTracker.begin(httpRequest, issueKey);
+            if (ticket == null) {
+                return supersededResponse();
+            }
 
-            RequestBody body = RequestBody.create(
-                okhttp3.MediaType.parse("application/json"),
-                gson.toJson(issueData)
-            );
-            
-            Request request = new Request.Builder()
-                .url("http://host.docker.internal:5001/api/suggest-articles")
-                .post(body)
-                .build();
+            if (!callLimiter.tryAcquire(BackendGateway.Endpoint.SUGGESTIONS)) {
+                ticket.finish();
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .entity(createErrorResponse("Too many suggestion requests in progress, please retry shortly"))
+                    .build();
+            }
+            Runnable done = () -> {
+                callLimiter.release(BackendGateway.Endpoint.SUGGESTIONS);
+                ticket.finish();
+            };
             
-            try (okhttp3.Response backendResponse = httpClient.newCall(request).execute()) {
-                String responseBody = backendResponse.body().string();
-                
-                if (backendResponse.isSuccessful()) {
-                    log.info("Successfully got suggestions from backend");
-                    return Response.ok(responseBody).build();
-                } else {
-                    log.error("Backend error: {}", responseBody);
-                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(createErrorResponse("Failed to get suggestions"))
-                        .build();
+            okhttp3.Response backendResponse;
+            try {
+                Call call = backendGateway.newCall(BackendGateway.Endpoint.SUGGESTIONS,
+                    backendProxy.prepare(suggestionService.buildSuggestionRequest(issue, local), acceptEncoding, ifNoneMatch));
+                // A newer request from the same editor cancels this call, so execute() returns at once.
+                ticket.attach(call);
+                backendResponse = call.execute();
+            } catch (Exception e) {
+                done.run();
+                if (ticket.isSuperseded()) {
+                    log.info("Suggestion request for {} superseded by a newer one", issueKey);
+                    return supersededResponse();
                 }
+                throw e;
+            }
+            
+            if (backendProxy.isRelayable(backendResponse)) {
+                log.info("Successfully got suggestions from backend");
+                // Relayed as-is and cached once complete; the limiter slot is held until the body has been written.
+                Response relayed = backendProxy.relay(backendResponse, done,
+                    body -> suggestionCache.put(cacheKey, issue.getKey(), body),
+                    suggestionCache.getMaxEntryBytes());
+                return Response.fromResponse(relayed)
+                    .header("X-Jurix-Cache", "MISS")
+                    .header(SuggestionService.PATH_HEADER, path)
+                    .build();
+            }
+            try (okhttp3.Response closeable = backendResponse) {
+                log.error("Backend error: {}", closeable.code());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(createErrorResponse("Failed to get suggestions"))
+                    .build();
+            } finally {
+                done.run();
             }
             
         } catch (Exception e) {
@@ -124,6 +152,52 @@ public class SmartSuggestionsController {
         }
     }
     
+    @GET
+    @Path("/cache/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response cacheMetrics() {
+        Map<String, Object> metrics = suggestionCache.getMetrics();
+        metrics.put("requests", requestTracker.getMetrics());
+        metrics.put("local", suggestionService.getMetrics());
+        return Response.ok(metrics).build();
+    }
+    
+    @POST
+    @Path("/feedback")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @AnonymousAllowed
+    public Response submitFeedback(Map<String, Object> feedbackData) {
+        if (feedbackData == null || feedbackData.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(createErrorResponse("Invalid feedback data"))
+                .build();
+        }
+        try (okhttp3.Response backendResponse = backendGateway.execute(
+                BackendGateway.Endpoint.ARTICLE_FEEDBACK,
+                backendGateway.postJson("/api/article-feedback", gson.toJson(feedbackData)))) {
+            String responseBody = backendResponse.body().string();
+            if (backendResponse.isSuccessful()) {
+                return Response.ok(responseBody).build();
+            }
+            log.error("Backend rejected suggestion feedback: {}", responseBody);
+            return Response.status(Response.Status.BAD_GATEWAY)
+                .entity(createErrorResponse("Failed to record feedback"))
+                .build();
+        } catch (Exception e) {
+            log.error("Error submitting suggestion feedback", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(createErrorResponse(e.getMessage()))
+                .build();
+        }
+    }
+    
+    private Response supersededResponse() {
+        Map<String, Object> error = createErrorResponse("Superseded by a newer suggestion request");
+        error.put("status", "superseded");
+        return Response.status(Response.Status.CONFLICT).entity(error).build();
+    }
+    
     private Map<String, Object> createErrorResponse(String message) {
         Map<String, Object> error = new HashMap<>();
         error.put("status", "error");
@@ -6,8 +6,11 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
+import com.google.gson.Gson;
+import com.jurix.ai.api.DashboardFetcher;
+import com.jurix.ai.service.DashboardSnapshotService;
 import com.jurix.ai.service.DashboardUpdateService;
-import com.jurix.ai.api.JurixApiClient;
+import com.jurix.ai.service.UpdateStreamBroadcaster;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.*;
@@ -20,12 +23,18 @@ public class UpdatesController {
     private static final Logger log = LoggerFactory.getLogger(UpdatesController.class);
     
     private final DashboardUpdateService updateService;
-    private final JurixApiClient apiClient;
+    private final UpdateStreamBroadcaster streamBroadcaster;
+    private final DashboardSnapshotService snapshotService;
+    private final DashboardFetcher dashboardFetcher;
+    private final Gson gson = new Gson();
     
     @Inject
-    public UpdatesController(DashboardUpdateService updateService) {
+    public UpdatesController(DashboardUpdateService updateService, UpdateStreamBroadcaster streamBroadcaster,
+                             DashboardSnapshotService snapshotService, DashboardFetcher dashboardFetcher) {
         this.updateService = updateService;
-        this.apiClient = JurixApiClient.getInstance();
+        this.streamBroadcaster = streamBroadcaster;
+        this.snapshotService = snapshotService;
+        this.dashboardFetcher = dashboardFetcher;
     }
     
     @GET
@@ -34,7 +43,8 @@ public class UpdatesController {
     @AnonymousAllowed 
     public Response getUpdates(
             @PathParam("projectKey") String projectKey,
-            @QueryParam("since") Long sinceTimestamp) {
+            @QueryParam("since") Long sinceTimestamp,
+            @QueryParam("version") Long dashboardVersion) {
         
         try {
             if (sinceTimestamp == null) {
@@ -42,10 +52,22 @@ public class UpdatesController {
             }
             Map<String, Object> updates = updateService.getUpdatesSince(projectKey, sinceTimestamp);
             
-            if ((Boolean) updates.get("hasUpdates")) {
-                log.info("Updates detected for project {} - fetching fresh dashboard data", projectKey);
-                JurixApiClient.DashboardResponse dashboardData = apiClient.getDashboard(projectKey);
-                updates.put("dashboardData", dashboardData);
+            boolean versionChanged = dashboardVersion != null
+                && dashboardVersion != snapshotService.getVersion(projectKey);
+            if ((Boolean) updates.get("hasUpdates") || versionChanged) {
+                log.info("Updates detected for project {} - resolving dashboard since version {}", 
+                         projectKey, dashboardVersion);
+                try {
+                    updates.putAll(snapshotService.getDashboardSince(projectKey, dashboardVersion,
+                        () -> loadDashboard(projectKey)));
+                } catch (Exception e) {
+                    // The client keeps its version and asks again on the next update.
+                    log.warn("Could not load dashboard snapshot for project {}: {}", projectKey, e.getMessage());
+                    updates.put("dashboardChanged", false);
+                    updates.put("dashboardError", e.getMessage());
+                }
+            } else {
+                updates.put("dashboardVersion", snapshotService.getVersion(projectKey));
             }
             
             return Response.ok(updates).build();
@@ -58,6 +80,25 @@ public class UpdatesController {
         }
     }
     
+    /**
+     * Loads the dashboard for a new snapshot version from the backend. The cached copy in
+     * DashboardService may predate the update that bumped the version, so the fetch skips
+     * the freshness window; it still shares an in-flight call with other fetches.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> loadDashboard(String projectKey) {
+        DashboardFetcher.Result result;
+        try {
+            result = dashboardFetcher.fetchFresh(projectKey);
+        } catch (Exception e) {
+            throw new IllegalStateException("Dashboard request failed: " + e.getMessage(), e);
+        }
+        if (!result.isSuccessful()) {
+            throw new IllegalStateException("Dashboard backend returned HTTP " + result.getStatusCode());
+        }
+        return gson.fromJson(result.getBody(), Map.class);
+    }
+    
     @GET
     @Path("/{projectKey}/summary")
     @Produces(MediaType.APPLICATION_JSON)
@@ -82,6 +123,13 @@ public class UpdatesController {
         }
     }
 
+    @GET
+    @Path("/stream/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStreamMetrics() {
+        return Response.ok(streamBroadcaster.getMetrics()).build();
+    }
+
     @GET
     @Path("/test-update/{projectKey}")
     @Produces(MediaType.APPLICATION_JSON)
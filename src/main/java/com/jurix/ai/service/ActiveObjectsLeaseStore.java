@@ -0,0 +1,70 @@
+package com.jurix.ai.service;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.jurix.ai.ao.LeaseRecord;
+import net.java.ao.DBParam;
+import net.java.ao.Query;
+
+/**
+ * Leases stored as rows in AI_LEASE. The unique constraint on LEASE_KEY arbitrates between
+ * nodes racing for the same key, and the row's auto-increment ID doubles as the fencing
+ * token. Expired rows are deleted before each acquisition attempt.
+ */
+class ActiveObjectsLeaseStore implements LeaseStore {
+
+    private final ActiveObjects ao;
+
+    ActiveObjectsLeaseStore(ActiveObjects ao) {
+        this.ao = ao;
+    }
+
+    @Override
+    public String getName() {
+        return "database";
+    }
+
+    @Override
+    public GenerationLease tryAcquire(String key, String owner, long ttlMs) {
+        long now = System.currentTimeMillis();
+        ao.deleteWithSQL(LeaseRecord.class, "LEASE_KEY = ? AND EXPIRES_AT < ?", key, now);
+        try {
+            LeaseRecord record = ao.create(LeaseRecord.class,
+                new DBParam("LEASE_KEY", key),
+                new DBParam("OWNER", owner),
+                new DBParam("ACQUIRED_AT", now),
+                new DBParam("EXPIRES_AT", now + ttlMs));
+            return new GenerationLease(key, record.getID(), owner, now + ttlMs, getName());
+        } catch (RuntimeException e) {
+            // A unique constraint violation means another node holds the key.
+            if (isHeld(key)) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean release(GenerationLease lease) {
+        return ao.deleteWithSQL(LeaseRecord.class, "LEASE_KEY = ? AND ID = ?",
+            lease.getKey(), (int) lease.getToken()) > 0;
+    }
+
+    @Override
+    public boolean isHeld(String key) {
+        return ao.count(LeaseRecord.class, Query.select()
+            .where("LEASE_KEY = ? AND EXPIRES_AT >= ?", key, System.currentTimeMillis())) > 0;
+    }
+
+    @Override
+    public boolean isCurrent(GenerationLease lease) {
+        return ao.count(LeaseRecord.class, Query.select()
+            .where("ID = ? AND LEASE_KEY = ? AND EXPIRES_AT >= ?",
+                (int) lease.getToken(), lease.getKey(), System.currentTimeMillis())) > 0;
+    }
+
+    @Override
+    public int sweepStale(int batchSize) {
+        // Expired rows are already ignored by every query; this only keeps the table small.
+        return ao.deleteWithSQL(LeaseRecord.class, "EXPIRES_AT < ?", System.currentTimeMillis());
+    }
+}
@@ -1,8 +1,6 @@
 package com.jurix.ai.service;
 
-import com.atlassian.cache.Cache;
-import com.atlassian.cache.CacheManager;
-import com.atlassian.cache.CacheSettingsBuilder;
+import com.atlassian.jira.issue.Issue;
 import com.google.gson.Gson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,72 +8,114 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 @Named
 public class ArticleGenerationService {
     
     private static final Logger log = LoggerFactory.getLogger(ArticleGenerationService.class);
-    private final Gson gson = new Gson();
-    private final Map<String, ArticleData> articleStorage = new ConcurrentHashMap<>();
-    private final Set<String> generationInProgress = ConcurrentHashMap.newKeySet();
+    private static final long GENERATION_LEASE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final String LEASE_PREFIX = "article:";
     
-    private final Cache<String, String> cache;
+    private final Gson gson = new Gson();
+    private final ArticleStore articleStore;
+    private final GenerationLeaseService leaseService;
     
     @Inject
-    public ArticleGenerationService(CacheManager cacheManager) {
-        this.cache = cacheManager.getCache(
-            "com.jurix.ai.articleCache",
-            null,
-            new CacheSettingsBuilder()
-                .expireAfterWrite(24, TimeUnit.HOURS)
-                .maxEntries(1000)
-                .build()
-        );
+    public ArticleGenerationService(ArticleStore articleStore, GenerationLeaseService leaseService) {
+        this.articleStore = articleStore;
+        this.leaseService = leaseService;
         log.info("ArticleGenerationService initialized");
     }
     
-    public boolean isArticleGenerationInProgress(String cacheKey) {
-        return generationInProgress.contains(cacheKey);
+    public boolean isArticleGenerationInProgress(String issueKey) {
+        return leaseService.isHeld(LEASE_PREFIX + issueKey);
     }
     
-    public void markGenerationInProgress(String cacheKey) {
-        generationInProgress.add(cacheKey);
-        new Timer().schedule(new TimerTask() {
-            @Override
-            public void run() {
-                generationInProgress.remove(cacheKey);
-            }
-        }, 600000);
+    /**
+     * Claims generation of the issue's article across the cluster. Returns {@code null} if
+     * another node or thread is already generating it. The lease lapses after 10 minutes
+     * if it is never released.
+     */
+    public GenerationLease acquireGenerationLease(String issueKey) {
+        return leaseService.tryAcquire(LEASE_PREFIX + issueKey, GENERATION_LEASE_TTL_MS);
     }
     
-    public void markGenerationComplete(String cacheKey) {
-        generationInProgress.remove(cacheKey);
+    public boolean holdsGenerationLease(GenerationLease lease) {
+        return leaseService.isCurrent(lease);
+    }
+    
+    public void releaseGenerationLease(GenerationLease lease) {
+        leaseService.release(lease);
     }
     
     public void storeArticleData(String issueKey, Map<String, Object> articleData) {
+        storeArticleData(issueKey, articleData, null);
+    }
+    
+    /**
+     * Stores the article, fenced by {@code lease} when one is given. Returns {@code false}
+     * if the write was rejected because a newer lease already wrote the article.
+     */
+    public boolean storeArticleData(String issueKey, Map<String, Object> articleData, GenerationLease lease) {
         ArticleData data = new ArticleData();
         data.issueKey = issueKey;
         data.article = (Map<String, Object>) articleData.get("article");
         data.status = (String) articleData.get("status");
         data.createdAt = System.currentTimeMillis();
         
-        articleStorage.put(issueKey, data);
-        cache.put("article:" + issueKey, gson.toJson(data));
+        if (!articleStore.save(data, lease)) {
+            return false;
+        }
         
         log.info("Stored article data for issue: {}", issueKey);
+        return true;
     }
     
-    public void storeGenerationError(String issueKey, String error) {
+    public boolean storeGenerationError(String issueKey, String error, GenerationLease lease) {
         ArticleData data = new ArticleData();
         data.issueKey = issueKey;
         data.status = "error";
         data.error = error;
         data.createdAt = System.currentTimeMillis();
         
-        articleStorage.put(issueKey, data);
-        cache.put("article:" + issueKey, gson.toJson(data));
+        return articleStore.save(data, lease);
+    }
+    
+    public Map<String, Object> buildGenerationPayload(Issue issue) {
+        Map<String, Object> issueData = new HashMap<>();
+        issueData.put("key", issue.getKey());
+        issueData.put("summary", issue.getSummary());
+        issueData.put("description", issue.getDescription());
+        issueData.put("status", issue.getStatus().getName());
+        issueData.put("type", issue.getIssueType().getName());
+        issueData.put("projectKey", issue.getProjectObject().getKey());
+        return issueData;
+    }
+
+    /**
+     * Stores the outcome of an /api/article/generate call made under {@code lease} and
+     * returns the parsed result, or {@code null} when the backend reported an error.
+     *
+     * @throws IllegalStateException when a newer lease has already written the article
+     */
+    public Map<String, Object> recordGenerationResult(Issue issue, int statusCode, String responseBody,
+                                                      GenerationLease lease) {
+        String issueKey = issue.getKey();
+        if (statusCode >= 200 && statusCode < 300) {
+            Map<String, Object> result = gson.fromJson(responseBody, Map.class);
+            if (!storeArticleData(issueKey, result, lease)) {
+                throw new IllegalStateException("Article was already written under a newer generation lease");
+            }
+            createNotification(issueKey, issue.getSummary());
+            log.info("✅ Article generated and stored successfully");
+            return result;
+        }
+        log.error("Backend error: {} - {}", statusCode, responseBody);
+        if (!storeGenerationError(issueKey, "Backend error: " + statusCode, lease)) {
+            throw new IllegalStateException("Article was already written under a newer generation lease");
+        }
+        return null;
     }
     
     public void createNotification(String issueKey, String issueSummary) {
@@ -83,19 +123,7 @@ public class ArticleGenerationService {
     }
     
     public ArticleData getArticleData(String issueKey) {
-        ArticleData data = articleStorage.get(issueKey);
-        if (data != null) {
-            return data;
-        }
-        
-        String cached = cache.get("article:" + issueKey);
-        if (cached != null) {
-            data = gson.fromJson(cached, ArticleData.class);
-            articleStorage.put(issueKey, data);
-            return data;
-        }
-        
-        return null;
+        return articleStore.get(issueKey);
     }
     
     public static class ArticleData {
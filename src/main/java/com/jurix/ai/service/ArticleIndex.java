@@ -0,0 +1,384 @@
+package com.jurix.ai.service;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.google.gson.Gson;
+import com.jurix.ai.ao.GeneratedArticle;
+import com.jurix.ai.service.ArticleGenerationService.ArticleData;
+import com.jurix.ai.util.NamedThreadFactory;
+import net.java.ao.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Node-local BM25 inverted index over the generated articles, used to answer article
+ * suggestions without a backend call. Titles count double. The index is built from the
+ * AI_GENERATED_ARTICLE table on first use, on a background thread, and is then kept
+ * current by {@link ArticleStore}, which re-indexes an article whenever it is saved on
+ * this node or invalidated by another one. Only a short preview of each article is kept
+ * alongside the postings.
+ */
+@Named
+public class ArticleIndex implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ArticleIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MAX_QUERY_TERMS = 12;
+    private static final int PREVIEW_LENGTH = 200;
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "the", "and", "for", "are", "but", "not", "you", "all", "any", "can", "had", "her", "was", "one",
+        "our", "out", "has", "his", "how", "its", "may", "who", "did", "get", "use", "with", "this", "that",
+        "from", "have", "when", "will", "into", "than", "then", "them", "they", "what", "which", "there",
+        "their", "would", "could", "should", "about", "after", "before", "been", "being", "also", "only"));
+
+    private final ActiveObjects ao;
+    private final Gson gson = new Gson();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Document> documents = new HashMap<>();
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private long totalLength;
+    // Versions of articles removed before the initial build finished, so the build cannot
+    // re-add a row it read before the removal. Cleared once the build is done.
+    private final Map<String, Long> removedVersions = new HashMap<>();
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(new NamedThreadFactory("jurix-article-index"));
+    private final AtomicBoolean buildStarted = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile long buildMillis;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+
+    @Inject
+    public ArticleIndex(ActiveObjects ao) {
+        this.ao = ao;
+    }
+
+    @Override
+    public void destroy() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * Whether the initial build has finished. The first call starts it; until then callers
+     * should fall back to the backend.
+     */
+    public boolean isReady() {
+        if (!ready && buildStarted.compareAndSet(false, true)) {
+            builder.execute(this::build);
+        }
+        return ready;
+    }
+
+    /**
+     * Adds, replaces or (for {@code null} or failed articles) removes the article of an issue.
+     */
+    public void index(String issueKey, ArticleData data) {
+        // Stamped after the row was written, so it wins over whatever the build read.
+        long version = System.currentTimeMillis();
+        if (data == null || data.article == null || "error".equals(data.status)) {
+            put(issueKey, null, version);
+        } else {
+            put(issueKey, toDocument(issueKey, data.article, version), version);
+        }
+        updates.incrementAndGet();
+    }
+
+    /**
+     * Ranks articles against {@code text}, skipping the article of {@code excludeIssueKey}.
+     * Each hit's relevance is its BM25 score over the best possible score for the query
+     * terms used, so 1.0 means every term matched at saturation.
+     */
+    public List<Hit> search(String text, String excludeIssueKey, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            // Keep the most selective terms the index knows; unknown terms cannot match.
+            List<String> terms = new LinkedHashSet<>(tokenize(text)).stream()
+                .filter(postings::containsKey)
+                .sorted(Comparator.comparingInt((String term) -> postings.get(term).size()))
+                .limit(MAX_QUERY_TERMS)
+                .collect(Collectors.toList());
+            if (terms.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            Map<String, Double> scores = new HashMap<>();
+            Map<String, List<String>> matched = new HashMap<>();
+            double bestPossible = 0;
+            for (String term : terms) {
+                Map<String, Integer> posting = postings.get(term);
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                bestPossible += idf * (K1 + 1);
+                for (Map.Entry<String, Integer> entry : posting.entrySet()) {
+                    String issueKey = entry.getKey();
+                    if (issueKey.equals(excludeIssueKey)) {
+                        continue;
+                    }
+                    int tf = entry.getValue();
+                    double norm = K1 * (1 - B + B * documents.get(issueKey).length / averageLength);
+                    scores.merge(issueKey, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    matched.computeIfAbsent(issueKey, k -> new ArrayList<>()).add(term);
+                }
+            }
+
+            double bound = bestPossible;
+            return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> {
+                    Document document = documents.get(entry.getKey());
+                    return new Hit(entry.getKey(), document.title, document.preview,
+                        Math.min(1.0, entry.getValue() / bound), matched.get(entry.getKey()));
+                })
+                .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+            searches.incrementAndGet();
+            searchNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * A hit for an indexed article with the given relevance, or {@code null} if the
+     * article is not indexed. Used to present matches found by other rankers.
+     */
+    public Hit describe(String issueKey, double relevance) {
+        lock.readLock().lock();
+        try {
+            Document document = documents.get(issueKey);
+            return document != null
+                ? new Hit(issueKey, document.title, document.preview, relevance, new ArrayList<>())
+                : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("ready", ready);
+        metrics.put("buildMillis", buildMillis);
+        lock.readLock().lock();
+        try {
+            metrics.put("documents", documents.size());
+            metrics.put("terms", postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        long count = searches.get();
+        metrics.put("searches", count);
+        metrics.put("avgSearchMicros", count > 0 ? TimeUnit.NANOSECONDS.toMicros(searchNanos.get() / count) : 0);
+        metrics.put("updates", updates.get());
+        return metrics;
+    }
+
+    private void build() {
+        long start = System.currentTimeMillis();
+        try {
+            int[] count = new int[1];
+            ao.stream(GeneratedArticle.class,
+                Query.select("ID, ISSUE_KEY, TITLE, CONTENT, STATUS, CREATED_AT, UPDATED_AT"),
+                row -> {
+                    if (row.getContent() == null || "error".equals(row.getStatus())) {
+                        return;
+                    }
+                    Long updatedAt = row.getUpdatedAt() != null ? row.getUpdatedAt() : row.getCreatedAt();
+                    long version = updatedAt != null ? updatedAt : 0L;
+                    Map<String, Object> article = gson.fromJson(row.getContent(), Map.class);
+                    put(row.getIssueKey(), toDocument(row.getIssueKey(), article, version), version);
+                    count[0]++;
+                });
+            buildMillis = System.currentTimeMillis() - start;
+            lock.writeLock().lock();
+            try {
+                removedVersions.clear();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("📚 Indexed {} articles for local suggestions in {} ms", count[0], buildMillis);
+        } catch (Exception e) {
+            // Let the next caller retry; until then suggestions go to the backend.
+            buildStarted.set(false);
+            log.warn("Could not build the local article index: {}", e.getMessage());
+        }
+    }
+
+    private void put(String issueKey, Document document, long version) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.get(issueKey);
+            // The initial build may read a row that a concurrent save has already replaced
+            // or removed.
+            if (previous != null && previous.version > version) {
+                return;
+            }
+            Long removedAt = removedVersions.get(issueKey);
+            if (removedAt != null && removedAt > version) {
+                return;
+            }
+            if (previous != null) {
+                removePostings(issueKey, previous);
+            }
+            if (document == null) {
+                documents.remove(issueKey);
+                if (!ready) {
+                    removedVersions.put(issueKey, version);
+                }
+                return;
+            }
+            removedVersions.remove(issueKey);
+            documents.put(issueKey, document);
+            totalLength += document.length;
+            for (Map.Entry<String, Integer> term : document.termFrequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(issueKey, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock.
+    private void removePostings(String issueKey, Document document) {
+        totalLength -= document.length;
+        for (String term : document.termFrequencies.keySet()) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(issueKey);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private Document toDocument(String issueKey, Map<String, Object> article, long version) {
+        Object titleValue = article.get("title");
+        String title = titleValue != null ? titleValue.toString() : issueKey;
+        String body = articleText(article);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(body)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        Object summary = article.get("summary");
+        String preview = (summary instanceof String ? (String) summary : body).trim().replaceAll("\\s+", " ");
+        if (preview.length() > PREVIEW_LENGTH) {
+            preview = preview.substring(0, PREVIEW_LENGTH) + "…";
+        }
+        return new Document(title, preview, frequencies, length, version);
+    }
+
+    /**
+     * All text of an article except its title, in field order.
+     */
+    static String articleText(Map<String, Object> article) {
+        StringBuilder text = new StringBuilder();
+        collectText(article, text);
+        return text.toString();
+    }
+
+    private static void collectText(Object value, StringBuilder text) {
+        if (value instanceof String) {
+            text.append((String) value).append(' ');
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!"title".equals(entry.getKey())) {
+                    collectText(entry.getValue(), text);
+                }
+            }
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                collectText(item, text);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 2 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public static class Hit {
+        private final String issueKey;
+        private final String title;
+        private final String preview;
+        private final double relevance;
+        private final List<String> matchedTerms;
+
+        Hit(String issueKey, String title, String preview, double relevance, List<String> matchedTerms) {
+            this.issueKey = issueKey;
+            this.title = title;
+            this.preview = preview;
+            this.relevance = relevance;
+            this.matchedTerms = matchedTerms;
+        }
+
+        public String getIssueKey() { return issueKey; }
+        public String getTitle() { return title; }
+        public String getPreview() { return preview; }
+        public double getRelevance() { return relevance; }
+        public List<String> getMatchedTerms() { return matchedTerms; }
+    }
+
+    private static class Document {
+        private final String title;
+        private final String preview;
+        private final Map<String, Integer> termFrequencies;
+        private final int length;
+        private final long version;
+
+        Document(String title, String preview, Map<String, Integer> termFrequencies, int length, long version) {
+            this.title = title;
+            this.preview = preview;
+            this.termFrequencies = termFrequencies;
+            this.length = length;
+            this.version = version;
+        }
+    }
+}
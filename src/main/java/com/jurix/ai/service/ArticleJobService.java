@@ -0,0 +1,410 @@
+package com.jurix.ai.service;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.atlassian.jira.cluster.ClusterManager;
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.issue.Issue;
+import com.google.gson.Gson;
+import com.jurix.ai.ao.ArticleGenerationJob;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.util.NamedThreadFactory;
+import net.java.ao.DBParam;
+import net.java.ao.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs article generation as persisted background jobs. Submitting a job returns its id
+ * immediately; a bounded worker pool takes queued jobs in priority order (manual triggers
+ * before automatic ones) and calls /api/article/generate. Job state lives in the
+ * AI_ARTICLE_JOB table, so queued work survives a plugin restart and the issue panel can
+ * show progress without asking the backend.
+ * <p>
+ * Every node schedules every queued job. A worker claims a job only once it holds the
+ * issue's generation lease, and then only if the row is still QUEUED, so two nodes never
+ * run the same job. A worker that loses the lease race leaves the row untouched and
+ * tries again later.
+ */
+@Named
+public class ArticleJobService implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ArticleJobService.class);
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final long CONTENDED_RETRY_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long RECOVERY_INTERVAL_MINUTES = 10;
+    private static final String STANDALONE_NODE = "standalone";
+
+    public enum Trigger {
+        MANUAL(0),
+        AUTO(10);
+
+        private final int priority;
+
+        Trigger(int priority) {
+            this.priority = priority;
+        }
+
+        public int getPriority() { return priority; }
+    }
+
+    private final ActiveObjects ao;
+    private final ArticleGenerationService articleService;
+    private final BackendGateway backendGateway;
+    private final JurixConfiguration configuration;
+    private final Gson gson = new Gson();
+    private final Set<Integer> claimedJobs = ConcurrentHashMap.newKeySet();
+    // The task waiting in the worker queue for each job, so recovery and retries never queue
+    // a job twice and admission counts jobs rather than tasks.
+    private final Map<Integer, JobTask> queuedJobs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private ThreadPoolExecutor workers;
+    private ScheduledExecutorService retryScheduler;
+    private String nodeId;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong contended = new AtomicLong();
+
+    @Inject
+    public ArticleJobService(ActiveObjects ao, ArticleGenerationService articleService,
+                             BackendGateway backendGateway, JurixConfiguration configuration) {
+        this.ao = ao;
+        this.articleService = articleService;
+        this.backendGateway = backendGateway;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        nodeId = resolveNodeId();
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("jurix-article-retry"));
+        int threads = Math.max(1, configuration.getArticleWorkerThreads());
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(), new NamedThreadFactory("jurix-article-worker"));
+        // ActiveObjects is initialized lazily after plugin enable; recover from a worker thread.
+        workers.execute(new JobTask(-1, Integer.MIN_VALUE, this::recoverJobs));
+        // Jobs orphaned by a node that died mid-run become recoverable once its lease lapses.
+        retryScheduler.scheduleWithFixedDelay(
+            () -> workers.execute(new JobTask(-1, Integer.MIN_VALUE, this::recoverJobs)),
+            RECOVERY_INTERVAL_MINUTES, RECOVERY_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        log.info("ArticleJobService started with {} workers on node {}", threads, nodeId);
+    }
+
+    @Override
+    public void destroy() {
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a generation job for the issue, or returns the job that is already queued or
+     * running for it. A manual trigger promotes a queued automatic job to manual priority.
+     *
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public synchronized Map<String, Object> submit(String issueKey, Trigger trigger) {
+        ArticleGenerationJob active = findActiveJob(issueKey);
+        if (active != null) {
+            deduplicated.incrementAndGet();
+            if (STATUS_QUEUED.equals(active.getStatus()) && trigger.getPriority() < active.getPriority()) {
+                active.setPriority(trigger.getPriority());
+                active.setTriggerType(trigger.name());
+                active.save();
+                enqueue(active.getID(), trigger.getPriority());
+                log.info("Promoted article job {} for {} to {}", active.getID(), issueKey, trigger);
+            }
+            return toMap(active);
+        }
+
+        if (queuedJobs.size() >= configuration.getArticleMaxQueuedJobs()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Article generation queue is full");
+        }
+
+        ArticleGenerationJob job = ao.create(ArticleGenerationJob.class,
+            new DBParam("ISSUE_KEY", issueKey),
+            new DBParam("TRIGGER_TYPE", trigger.name()),
+            new DBParam("PRIORITY", trigger.getPriority()),
+            new DBParam("STATUS", STATUS_QUEUED),
+            new DBParam("ATTEMPTS", 0),
+            new DBParam("CREATED_AT", System.currentTimeMillis()));
+        submitted.incrementAndGet();
+        enqueue(job.getID(), trigger.getPriority());
+        log.info("📥 Queued article job {} for {} ({})", job.getID(), issueKey, trigger);
+        return toMap(job);
+    }
+
+    public Map<String, Object> getJob(int jobId) {
+        ArticleGenerationJob job = ao.get(ArticleGenerationJob.class, jobId);
+        return job != null ? toMap(job) : null;
+    }
+
+    public Map<String, Object> getLatestJob(String issueKey) {
+        ArticleGenerationJob[] jobs = ao.find(ArticleGenerationJob.class,
+            Query.select().where("ISSUE_KEY = ?", issueKey).order("ID DESC").limit(1));
+        return jobs.length > 0 ? toMap(jobs[0]) : null;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("submitted", submitted.get());
+        metrics.put("deduplicated", deduplicated.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("succeeded", succeeded.get());
+        metrics.put("failed", failed.get());
+        metrics.put("contended", contended.get());
+        metrics.put("queued", queuedJobs.size());
+        metrics.put("running", workers != null ? workers.getActiveCount() : 0);
+        metrics.put("workers", workers != null ? workers.getMaximumPoolSize() : 0);
+        metrics.put("maxQueued", configuration.getArticleMaxQueuedJobs());
+        return metrics;
+    }
+
+    private ArticleGenerationJob findActiveJob(String issueKey) {
+        ArticleGenerationJob[] jobs = ao.find(ArticleGenerationJob.class,
+            Query.select().where("ISSUE_KEY = ? AND STATUS IN (?, ?)", issueKey, STATUS_QUEUED, STATUS_RUNNING)
+                .order("ID DESC").limit(1));
+        return jobs.length > 0 ? jobs[0] : null;
+    }
+
+    private void enqueue(int jobId, int priority) {
+        JobTask task = new JobTask(jobId, priority, () -> runJob(jobId));
+        JobTask queued = queuedJobs.putIfAbsent(jobId, task);
+        // Already queued: only a promotion to a better priority queues the job again.
+        if (queued != null && (queued.priority <= priority || !queuedJobs.replace(jobId, queued, task))) {
+            return;
+        }
+        workers.execute(task);
+    }
+
+    private void retryLater(int jobId, int priority) {
+        try {
+            retryScheduler.schedule(() -> enqueue(jobId, priority), CONTENDED_RETRY_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Not retrying article job {}, shutting down", jobId);
+        }
+    }
+
+    /**
+     * Requeues RUNNING jobs that nobody is running any more: those this node owns but is not
+     * working on (left over from a restart), and those whose generation lease has lapsed.
+     * Jobs running on live nodes are left alone.
+     */
+    private void recoverJobs() {
+        try {
+            ArticleGenerationJob[] running = ao.find(ArticleGenerationJob.class,
+                Query.select().where("STATUS = ?", STATUS_RUNNING));
+            int interrupted = 0;
+            for (ArticleGenerationJob job : running) {
+                if (claimedJobs.contains(job.getID())) {
+                    continue;
+                }
+                boolean ownedHere = nodeId.equals(job.getOwner());
+                if (ownedHere || !articleService.isArticleGenerationInProgress(job.getIssueKey())) {
+                    job.setStatus(STATUS_QUEUED);
+                    job.setOwner(null);
+                    job.save();
+                    interrupted++;
+                }
+            }
+            ArticleGenerationJob[] queued = ao.find(ArticleGenerationJob.class,
+                Query.select().where("STATUS = ?", STATUS_QUEUED).order("PRIORITY ASC, ID ASC"));
+            for (ArticleGenerationJob job : queued) {
+                enqueue(job.getID(), job.getPriority() != null ? job.getPriority() : Trigger.AUTO.getPriority());
+            }
+            if (queued.length > 0) {
+                log.info("Recovered {} queued article jobs ({} were interrupted)", queued.length, interrupted);
+            }
+        } catch (Exception e) {
+            log.error("Failed to recover article generation jobs", e);
+        }
+    }
+
+    private void runJob(int jobId) {
+        if (!claimedJobs.add(jobId)) {
+            return;
+        }
+        try {
+            ArticleGenerationJob queued = findQueued(jobId);
+            if (queued == null) {
+                return;
+            }
+            String issueKey = queued.getIssueKey();
+            int priority = queued.getPriority() != null ? queued.getPriority() : Trigger.AUTO.getPriority();
+
+            GenerationLease lease;
+            try {
+                lease = articleService.acquireGenerationLease(issueKey);
+            } catch (Exception e) {
+                log.error("Could not acquire generation lease for {}, retrying later", issueKey, e);
+                retryLater(jobId, priority);
+                return;
+            }
+            if (lease == null) {
+                // Another node holds the issue, or Redis leases are enabled and unreachable from here.
+                contended.incrementAndGet();
+                log.debug("Generation lease for {} is not available, retrying article job {} later", issueKey, jobId);
+                retryLater(jobId, priority);
+                return;
+            }
+
+            try {
+                // Read again under the lease: another node may have run the job meanwhile.
+                ArticleGenerationJob job = findQueued(jobId);
+                if (job == null) {
+                    return;
+                }
+                job.setStatus(STATUS_RUNNING);
+                job.setOwner(nodeId);
+                job.setStartedAt(System.currentTimeMillis());
+                job.setAttempts((job.getAttempts() != null ? job.getAttempts() : 0) + 1);
+                job.save();
+                runClaimedJob(job, lease);
+            } finally {
+                articleService.releaseGenerationLease(lease);
+            }
+        } catch (Exception e) {
+            log.error("Error running article job {}", jobId, e);
+        } finally {
+            claimedJobs.remove(jobId);
+        }
+    }
+
+    // Callers must hold the issue's generation lease.
+    private void runClaimedJob(ArticleGenerationJob job, GenerationLease lease) {
+        int jobId = job.getID();
+        String issueKey = job.getIssueKey();
+        Issue issue = ComponentAccessor.getIssueManager().getIssueObject(issueKey);
+        if (issue == null) {
+            finish(job, STATUS_FAILED, "Issue not found");
+            return;
+        }
+
+        log.info("🚀 Running article job {} for {} (lease {})", jobId, issueKey, lease.getToken());
+        try (okhttp3.Response response = backendGateway.execute(
+                    BackendGateway.Endpoint.ARTICLE_GENERATE,
+                    backendGateway.postJson("/api/article/generate/" + issueKey,
+                        gson.toJson(articleService.buildGenerationPayload(issue))))) {
+            int statusCode = response.code();
+            String body = response.body().string();
+            if (!articleService.holdsGenerationLease(lease)) {
+                finish(job, STATUS_FAILED, "Generation lease expired before the backend answered");
+                return;
+            }
+            Map<String, Object> result = articleService.recordGenerationResult(issue, statusCode, body, lease);
+            if (result != null) {
+                finish(job, STATUS_SUCCEEDED, null);
+            } else {
+                finish(job, STATUS_FAILED, "Backend error: " + statusCode);
+            }
+        } catch (Exception e) {
+            log.error("Article job {} for {} failed", jobId, issueKey, e);
+            if (articleService.holdsGenerationLease(lease)) {
+                articleService.storeGenerationError(issueKey, e.getMessage(), lease);
+            }
+            finish(job, STATUS_FAILED, e.getMessage());
+        }
+    }
+
+    private ArticleGenerationJob findQueued(int jobId) {
+        ArticleGenerationJob[] jobs = ao.find(ArticleGenerationJob.class,
+            Query.select().where("ID = ? AND STATUS = ?", jobId, STATUS_QUEUED));
+        return jobs.length > 0 ? jobs[0] : null;
+    }
+
+    private static String resolveNodeId() {
+        try {
+            ClusterManager clusterManager = ComponentAccessor.getComponent(ClusterManager.class);
+            String id = clusterManager != null ? clusterManager.getNodeId() : null;
+            return id != null ? id : STANDALONE_NODE;
+        } catch (Exception e) {
+            return STANDALONE_NODE;
+        }
+    }
+
+    private void finish(ArticleGenerationJob job, String status, String error) {
+        job.setStatus(status);
+        job.setError(error);
+        job.setFinishedAt(System.currentTimeMillis());
+        job.save();
+        if (STATUS_SUCCEEDED.equals(status)) {
+            succeeded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+
+    private Map<String, Object> toMap(ArticleGenerationJob job) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("jobId", job.getID());
+        result.put("issueKey", job.getIssueKey());
+        result.put("trigger", job.getTriggerType());
+        result.put("jobStatus", job.getStatus());
+        result.put("attempts", job.getAttempts());
+        result.put("error", job.getError());
+        result.put("createdAt", job.getCreatedAt());
+        result.put("startedAt", job.getStartedAt());
+        result.put("finishedAt", job.getFinishedAt());
+        return result;
+    }
+
+    private class JobTask implements Runnable, Comparable<JobTask> {
+        private final int jobId;
+        private final int priority;
+        private final long order = sequence.incrementAndGet();
+        private final Runnable work;
+
+        JobTask(int jobId, int priority, Runnable work) {
+            this.jobId = jobId;
+            this.priority = priority;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            // A task replaced by a promotion leaves the newer task's entry alone.
+            queuedJobs.remove(jobId, this);
+            work.run();
+        }
+
+        @Override
+        public int compareTo(JobTask other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+
+        @Override
+        public String toString() {
+            return "article job " + jobId;
+        }
+    }
+}
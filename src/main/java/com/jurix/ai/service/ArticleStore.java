@@ -0,0 +1,329 @@
+package com.jurix.ai.service;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.atlassian.jira.cluster.ClusterMessageConsumer;
+import com.atlassian.jira.cluster.ClusterMessagingService;
+import com.google.gson.Gson;
+import com.jurix.ai.ao.GeneratedArticle;
+import com.jurix.ai.config.ClusterChannels;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.service.ArticleGenerationService.ArticleData;
+import com.jurix.ai.util.NamedThreadFactory;
+import net.java.ao.DBParam;
+import net.java.ao.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable storage for generated articles. Articles are persisted in the
+ * AI_GENERATED_ARTICLE table and read through a node-local LRU cache bounded by entry
+ * count and by the estimated size of the cached article text. Writes update the table
+ * first, then the local cache, {@link ArticleIndex} and {@link ArticleVectorStore},
+ * then tell the other cluster nodes to drop their copy; they re-read the row into their
+ * own index on a background thread. Issues without an article are cached too, so the
+ * issue panel does not query the table on every view.
+ */
+@Named
+public class ArticleStore implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ArticleStore.class);
+
+    static final String INVALIDATION_CHANNEL = ClusterChannels.ARTICLE_INVALIDATION;
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private final ActiveObjects ao;
+    private final ClusterMessagingService clusterMessagingService;
+    private final JurixConfiguration configuration;
+    private final ArticleIndex articleIndex;
+    private final ArticleVectorStore articleVectors;
+    private final Gson gson = new Gson();
+    private final ExecutorService reindexer = Executors.newSingleThreadExecutor(new NamedThreadFactory("jurix-article-reindex"));
+    private final Set<String> pendingReindex = ConcurrentHashMap.newKeySet();
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long writeGeneration;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong remoteInvalidations = new AtomicLong();
+    private final AtomicLong duplicateKeyRetries = new AtomicLong();
+    private final AtomicLong staleWritesRejected = new AtomicLong();
+
+    // Runs on the cluster messaging thread, so it only evicts; re-reading happens on the reindexer.
+    private final ClusterMessageConsumer invalidationConsumer = (channel, issueKey, senderId) -> {
+        remoteInvalidations.incrementAndGet();
+        evictLocal(issueKey);
+        scheduleReindex(issueKey);
+    };
+
+    @Inject
+    public ArticleStore(ActiveObjects ao, ClusterMessagingService clusterMessagingService,
+                        JurixConfiguration configuration, ArticleIndex articleIndex,
+                        ArticleVectorStore articleVectors) {
+        this.ao = ao;
+        this.clusterMessagingService = clusterMessagingService;
+        this.configuration = configuration;
+        this.articleIndex = articleIndex;
+        this.articleVectors = articleVectors;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        clusterMessagingService.registerListener(INVALIDATION_CHANNEL, invalidationConsumer);
+    }
+
+    @Override
+    public void destroy() {
+        clusterMessagingService.unregisterListener(INVALIDATION_CHANNEL, invalidationConsumer);
+        reindexer.shutdownNow();
+        synchronized (cache) {
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    /**
+     * Returns the stored article for the issue, loading it from the database on a cache
+     * miss, or {@code null} when none has been generated.
+     */
+    public ArticleData get(String issueKey) {
+        long generation;
+        synchronized (cache) {
+            CacheEntry entry = cache.get(issueKey);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry.data;
+            }
+            generation = writeGeneration;
+        }
+
+        misses.incrementAndGet();
+        ArticleData data = load(issueKey);
+        synchronized (cache) {
+            // A write that landed while we were reading the table wins over our copy.
+            if (generation == writeGeneration) {
+                putLocal(issueKey, data);
+            }
+        }
+        return data;
+    }
+
+    public void save(ArticleData data) {
+        save(data, null);
+    }
+
+    /**
+     * Stores the article. A write made under a generation lease is fenced: it is rejected,
+     * and {@code false} returned, when the row was already written under a newer lease from
+     * the same lease store. Writes without a lease always apply and leave the fence as is.
+     */
+    public boolean save(ArticleData data, GenerationLease lease) {
+        String content = data.article != null ? gson.toJson(data.article) : null;
+        Object title = data.article != null ? data.article.get("title") : null;
+        long now = System.currentTimeMillis();
+
+        boolean applied;
+        try {
+            applied = upsert(data, lease, title, content, now);
+        } catch (RuntimeException e) {
+            // A concurrent first save for the issue won the unique ISSUE_KEY; update its row instead.
+            if (findRow(data.issueKey) == null) {
+                throw e;
+            }
+            duplicateKeyRetries.incrementAndGet();
+            applied = upsert(data, lease, title, content, now);
+        }
+        if (!applied) {
+            staleWritesRejected.incrementAndGet();
+            log.warn("Rejected article write for {} under stale lease {}", data.issueKey, lease);
+            return false;
+        }
+        writes.incrementAndGet();
+
+        synchronized (cache) {
+            writeGeneration++;
+            putLocal(data.issueKey, data);
+        }
+        articleIndex.index(data.issueKey, data);
+        articleVectors.update(data.issueKey, data);
+        clusterMessagingService.sendRemote(INVALIDATION_CHANNEL, data.issueKey);
+        log.debug("Persisted article for {} ({} chars)", data.issueKey, content != null ? content.length() : 0);
+        return true;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("loads", loads.get());
+        metrics.put("writes", writes.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("remoteInvalidations", remoteInvalidations.get());
+        metrics.put("duplicateKeyRetries", duplicateKeyRetries.get());
+        metrics.put("staleWritesRejected", staleWritesRejected.get());
+        metrics.put("pendingReindex", pendingReindex.size());
+        synchronized (cache) {
+            metrics.put("entries", cache.size());
+            metrics.put("bytes", cachedBytes);
+        }
+        metrics.put("maxEntries", configuration.getArticleCacheMaxEntries());
+        metrics.put("maxBytes", configuration.getArticleCacheMaxBytes());
+        return metrics;
+    }
+
+    private boolean upsert(ArticleData data, GenerationLease lease, Object title, String content, long now) {
+        Long fenceToken = lease != null ? lease.getToken() : null;
+        String fenceStore = lease != null ? lease.getStore() : null;
+        return ao.executeInTransaction(() -> {
+            GeneratedArticle article = findRow(data.issueKey);
+            if (article != null) {
+                if (lease != null) {
+                    if (isNewerFence(article, lease)) {
+                        return false;
+                    }
+                    article.setFenceToken(fenceToken);
+                    article.setFenceStore(fenceStore);
+                }
+                article.setTitle(title != null ? title.toString() : null);
+                article.setContent(content);
+                article.setStatus(data.status);
+                article.setError(data.error);
+                article.setUpdatedAt(now);
+                article.save();
+                return true;
+            }
+            ao.create(GeneratedArticle.class,
+                new DBParam("ISSUE_KEY", data.issueKey),
+                new DBParam("FENCE_TOKEN", fenceToken),
+                new DBParam("FENCE_STORE", fenceStore),
+                new DBParam("TITLE", title != null ? title.toString() : null),
+                new DBParam("CONTENT", content),
+                new DBParam("STATUS", data.status),
+                new DBParam("ERROR", data.error),
+                new DBParam("CREATED_AT", data.createdAt),
+                new DBParam("UPDATED_AT", now));
+            return true;
+        });
+    }
+
+    // Tokens from different lease stores are not comparable, so only the same store fences.
+    static boolean isNewerFence(GeneratedArticle article, GenerationLease lease) {
+        return article.getFenceToken() != null
+            && lease.getStore().equals(article.getFenceStore())
+            && article.getFenceToken() > lease.getToken();
+    }
+
+    private GeneratedArticle findRow(String issueKey) {
+        GeneratedArticle[] rows = ao.find(GeneratedArticle.class,
+            Query.select().where("ISSUE_KEY = ?", issueKey));
+        return rows.length > 0 ? rows[0] : null;
+    }
+
+    private void scheduleReindex(String issueKey) {
+        if (!pendingReindex.add(issueKey)) {
+            return;
+        }
+        try {
+            reindexer.execute(() -> {
+                // Cleared before reading, so an invalidation arriving mid-read schedules another pass.
+                pendingReindex.remove(issueKey);
+                try {
+                    ArticleData data = get(issueKey);
+                    articleIndex.index(issueKey, data);
+                    articleVectors.update(issueKey, data);
+                } catch (Exception e) {
+                    log.warn("Could not reindex article for {}: {}", issueKey, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingReindex.remove(issueKey);
+        }
+    }
+
+    private ArticleData load(String issueKey) {
+        loads.incrementAndGet();
+        GeneratedArticle row = findRow(issueKey);
+        if (row == null) {
+            return null;
+        }
+        ArticleData data = new ArticleData();
+        data.issueKey = row.getIssueKey();
+        data.article = row.getContent() != null ? gson.fromJson(row.getContent(), Map.class) : null;
+        data.status = row.getStatus();
+        data.error = row.getError();
+        Long updatedAt = row.getUpdatedAt() != null ? row.getUpdatedAt() : row.getCreatedAt();
+        data.createdAt = updatedAt != null ? updatedAt : 0L;
+        return data;
+    }
+
+    private void evictLocal(String issueKey) {
+        synchronized (cache) {
+            writeGeneration++;
+            CacheEntry removed = cache.remove(issueKey);
+            if (removed != null) {
+                cachedBytes -= removed.weight;
+            }
+        }
+    }
+
+    // Callers must hold the cache lock.
+    private void putLocal(String issueKey, ArticleData data) {
+        CacheEntry entry = new CacheEntry(data, estimateWeight(data));
+        CacheEntry previous = cache.put(issueKey, entry);
+        if (previous != null) {
+            cachedBytes -= previous.weight;
+        }
+        cachedBytes += entry.weight;
+
+        int maxEntries = configuration.getArticleCacheMaxEntries();
+        long maxBytes = configuration.getArticleCacheMaxBytes();
+        Iterator<Map.Entry<String, CacheEntry>> eldest = cache.entrySet().iterator();
+        while ((cache.size() > maxEntries || cachedBytes > maxBytes) && eldest.hasNext()) {
+            Map.Entry<String, CacheEntry> next = eldest.next();
+            if (next.getValue() == entry) {
+                break;
+            }
+            cachedBytes -= next.getValue().weight;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private long estimateWeight(ArticleData data) {
+        if (data == null) {
+            return ENTRY_OVERHEAD_BYTES;
+        }
+        long chars = data.error != null ? data.error.length() : 0;
+        if (data.article != null) {
+            chars += gson.toJson(data.article).length();
+        }
+        // Java strings are UTF-16, so two bytes per character plus map/object overhead.
+        return 2 * chars + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static class CacheEntry {
+        private final ArticleData data;
+        private final long weight;
+
+        CacheEntry(ArticleData data, long weight) {
+            this.data = data;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,703 @@
+package com.jurix.ai.service;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.config.util.JiraHome;
+import com.google.gson.Gson;
+import com.jurix.ai.ao.GeneratedArticle;
+import com.jurix.ai.api.BackendCallLimiter;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.service.ArticleGenerationService.ArticleData;
+import com.jurix.ai.util.NamedThreadFactory;
+import net.java.ao.Query;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional store of article embeddings for semantic suggestions served by the plugin.
+ * Each article is embedded once by the backend's /api/embed and its unit vector is
+ * written to a memory-mapped file in the node's local Jira home. Opening the store maps
+ * the file and reads only the slot keys, so vectors never pass through the Java heap and
+ * a restart does not re-embed anything. Queries are embedded the same way and answered
+ * with a flat cosine scan over the mapped vectors.
+ *
+ * <p>File layout: a 64-byte header (magic, version, dimension, capacity, slots used),
+ * then fixed-size slots of a 64-byte prefix (key length, issue key, embedded-at time)
+ * followed by the vector as little-endian floats. Removed slots have key length 0 and
+ * are reused.
+ */
+@Named
+public class ArticleVectorStore implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ArticleVectorStore.class);
+
+    static final String FILE_NAME = "jurix-article-vectors.bin";
+    private static final int MAGIC = 0x4A585653;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_PREFIX_BYTES = 64;
+    private static final int MAX_KEY_BYTES = 46;
+    private static final int KEY_OFFSET = 2;
+    private static final int EMBEDDED_AT_OFFSET = 48;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int EMBED_BATCH_SIZE = 32;
+    private static final int MAX_TEXT_CHARS = 4000;
+    private static final long EMBED_RETRY_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int MAX_QUERY_VECTORS = 512;
+    // After a query embed fails or times out, suggestions skip the semantic path this long.
+    private static final long QUERY_EMBED_BACKOFF_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final ActiveObjects ao;
+    private final BackendGateway backendGateway;
+    private final BackendCallLimiter callLimiter;
+    private final ArticleIndex articleIndex;
+    private final JurixConfiguration configuration;
+    private final Gson gson = new Gson();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private FloatBuffer floats;
+    private int dimension;
+    private int capacity;
+    private int slotsUsed;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(new NamedThreadFactory("jurix-article-vectors"));
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile long openMillis;
+    // Set while the backend has no /api/embed; the store stays off until then.
+    private final AtomicLong embedDisabledUntil = new AtomicLong();
+    private final AtomicLong queryEmbedBackoffUntil = new AtomicLong();
+    // Unit-length query vectors keyed by a digest of the query text, least recently used first.
+    private final Map<String, float[]> queryVectors = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong embedded = new AtomicLong();
+    private final AtomicLong embedFailures = new AtomicLong();
+    private final AtomicLong queryVectorHits = new AtomicLong();
+    private final AtomicLong queryEmbedsSkipped = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+
+    @Inject
+    public ArticleVectorStore(ActiveObjects ao, BackendGateway backendGateway, BackendCallLimiter callLimiter,
+                              ArticleIndex articleIndex, JurixConfiguration configuration) {
+        this.ao = ao;
+        this.backendGateway = backendGateway;
+        this.callLimiter = callLimiter;
+        this.articleIndex = articleIndex;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Maps the file at startup when enabled; otherwise on first use after it is turned on.
+        isReady();
+    }
+
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not close the article vector file: {}", e.getMessage());
+        } finally {
+            buffer = null;
+            floats = null;
+            channel = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether semantic search is enabled and the vector file is mapped. The first call
+     * with the store enabled maps the file and starts embedding the articles it lacks.
+     * False for an hour after the backend answered that it has no embedding endpoint.
+     */
+    public boolean isReady() {
+        if (!configuration.isSuggestionVectorsEnabled()) {
+            return false;
+        }
+        long disabledUntil = embedDisabledUntil.get();
+        if (disabledUntil != 0) {
+            if (System.currentTimeMillis() < disabledUntil) {
+                return false;
+            }
+            if (embedDisabledUntil.compareAndSet(disabledUntil, 0) && started.get()) {
+                worker.execute(this::backfill);
+            }
+        }
+        if (!ready && started.compareAndSet(false, true)) {
+            worker.execute(this::open);
+            worker.execute(this::backfill);
+        }
+        return ready;
+    }
+
+    /**
+     * Re-embeds the article of an issue after it changed, or drops its vector when the
+     * article is gone or failed. Runs on the store's worker thread.
+     */
+    public void update(String issueKey, ArticleData data) {
+        if (!started.get()) {
+            // The backfill picks the article up when the store is first opened.
+            return;
+        }
+        worker.execute(() -> {
+            if (!ready || embedDisabledUntil.get() != 0) {
+                return;
+            }
+            if (data == null || data.article == null || "error".equals(data.status)) {
+                remove(issueKey);
+                return;
+            }
+            try {
+                float[][] vectors = embed(BackendGateway.Endpoint.EMBEDDINGS,
+                    Collections.singletonList(embeddingText(issueKey, data.article)));
+                put(issueKey, System.currentTimeMillis(), vectors[0]);
+            } catch (IOException e) {
+                embedFailures.incrementAndGet();
+                log.warn("Could not embed article for {}: {}", issueKey, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Articles closest in meaning to {@code text}, best first, with cosine similarity as
+     * relevance. Only articles the {@link ArticleIndex} knows are returned, so each hit
+     * has a title and preview. Empty when the store is not ready or the query could not
+     * be embedded.
+     */
+    public List<ArticleIndex.Hit> findSimilar(String text, String excludeIssueKey, int limit, double minSimilarity) {
+        List<ArticleIndex.Hit> hits = new ArrayList<>();
+        if (!isReady() || text == null || text.trim().isEmpty()) {
+            return hits;
+        }
+        float[] query = queryVector(truncate(text));
+        if (query == null) {
+            return hits;
+        }
+        for (Map.Entry<String, Float> match : search(query, excludeIssueKey, limit).entrySet()) {
+            if (match.getValue() < minSimilarity) {
+                break;
+            }
+            ArticleIndex.Hit hit = articleIndex.describe(match.getKey(), match.getValue());
+            if (hit != null) {
+                hits.add(hit);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * The query's vector from the cache, or embedded by the backend. Runs on the request
+     * thread, so the embed call takes a suggestion slot and has a short timeout. Null when
+     * no slot is free or the backend did not answer in time; the caller then skips the
+     * semantic path instead of waiting.
+     */
+    private float[] queryVector(String text) {
+        String key = digest(text);
+        synchronized (queryVectors) {
+            float[] cached = queryVectors.get(key);
+            if (cached != null) {
+                queryVectorHits.incrementAndGet();
+                // search() normalizes its argument in place; keep the cached copy untouched.
+                return cached.clone();
+            }
+        }
+        if (System.currentTimeMillis() < queryEmbedBackoffUntil.get()
+                || !callLimiter.tryAcquire(BackendGateway.Endpoint.SUGGESTIONS)) {
+            queryEmbedsSkipped.incrementAndGet();
+            return null;
+        }
+        float[] vector;
+        try {
+            vector = embed(BackendGateway.Endpoint.EMBED_QUERY, Collections.singletonList(text))[0];
+        } catch (IOException e) {
+            embedFailures.incrementAndGet();
+            queryEmbedBackoffUntil.set(System.currentTimeMillis() + QUERY_EMBED_BACKOFF_MS);
+            log.debug("Could not embed suggestion query: {}", e.getMessage());
+            return null;
+        } finally {
+            callLimiter.release(BackendGateway.Endpoint.SUGGESTIONS);
+        }
+        normalize(vector);
+        synchronized (queryVectors) {
+            queryVectors.put(key, vector);
+            if (queryVectors.size() > MAX_QUERY_VECTORS) {
+                Iterator<String> eldest = queryVectors.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return vector.clone();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", configuration.isSuggestionVectorsEnabled());
+        metrics.put("ready", ready);
+        metrics.put("openMillis", openMillis);
+        lock.readLock().lock();
+        try {
+            metrics.put("vectors", slots.size());
+            metrics.put("dimension", dimension);
+            metrics.put("capacity", capacity);
+            metrics.put("mappedBytes", buffer != null ? buffer.capacity() : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+        long count = searches.get();
+        metrics.put("searches", count);
+        metrics.put("avgSearchMicros", count > 0 ? TimeUnit.NANOSECONDS.toMicros(searchNanos.get() / count) : 0);
+        metrics.put("embedded", embedded.get());
+        metrics.put("embedFailures", embedFailures.get());
+        metrics.put("embedDisabledUntil", embedDisabledUntil.get());
+        metrics.put("queryVectorHits", queryVectorHits.get());
+        metrics.put("queryEmbedsSkipped", queryEmbedsSkipped.get());
+        return metrics;
+    }
+
+    /**
+     * Top {@code limit} slots by cosine similarity to {@code query}, in descending order.
+     * Stored vectors are unit length, so the dot product is the cosine.
+     */
+    Map<String, Float> search(float[] query, String excludeIssueKey, int limit) {
+        long start = System.nanoTime();
+        normalize(query);
+        lock.readLock().lock();
+        try {
+            Map<String, Float> ranked = new LinkedHashMap<>();
+            if (floats == null || query.length != dimension) {
+                return ranked;
+            }
+            Integer excluded = excludeIssueKey != null ? slots.get(excludeIssueKey) : null;
+            int slotFloats = slotBytes(dimension) / 4;
+            int firstVector = (HEADER_BYTES + SLOT_PREFIX_BYTES) / 4;
+
+            // Min-heap of (slot, score) holding the best candidates seen so far.
+            PriorityQueue<float[]> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(entry -> entry[1]));
+            for (int slot = 0; slot < slotsUsed; slot++) {
+                if ((excluded != null && slot == excluded) || buffer.getShort(slotOffset(slot)) == 0) {
+                    continue;
+                }
+                float score = dot(query, firstVector + slot * slotFloats);
+                if (best.size() < limit) {
+                    best.add(new float[] {slot, score});
+                } else if (score > best.peek()[1]) {
+                    best.poll();
+                    best.add(new float[] {slot, score});
+                }
+            }
+
+            List<float[]> ordered = new ArrayList<>(best);
+            ordered.sort((a, b) -> Float.compare(b[1], a[1]));
+            for (float[] entry : ordered) {
+                ranked.put(readKey((int) entry[0]), entry[1]);
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+            searches.incrementAndGet();
+            searchNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    // Four independent accumulators keep the loop free of a serial dependency chain.
+    private float dot(float[] query, int base) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < query.length; i += 4) {
+            s0 += floats.get(base + i) * query[i];
+            s1 += floats.get(base + i + 1) * query[i + 1];
+            s2 += floats.get(base + i + 2) * query[i + 2];
+            s3 += floats.get(base + i + 3) * query[i + 3];
+        }
+        for (; i < query.length; i++) {
+            s0 += floats.get(base + i) * query[i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    private void open() {
+        File directory = new File(ComponentAccessor.getComponent(JiraHome.class).getLocalHome(), "caches");
+        open(new File(directory, FILE_NAME));
+    }
+
+    void open(File file) {
+        long start = System.currentTimeMillis();
+        File directory = file.getParentFile();
+        lock.writeLock().lock();
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (!loadExisting()) {
+                dimension = 0;
+                capacity = 0;
+                slotsUsed = 0;
+            }
+            openMillis = System.currentTimeMillis() - start;
+            ready = true;
+            log.info("🧭 Mapped {} article vectors from {} in {} ms", slots.size(), file, openMillis);
+        } catch (IOException e) {
+            closeQuietly();
+            started.set(false);
+            log.error("Could not open the article vector file {}: {}", file, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock.
+    private void closeQuietly() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+            // Nothing was written through this channel.
+        }
+        channel = null;
+        buffer = null;
+        floats = null;
+        slots.clear();
+        freeSlots.clear();
+    }
+
+    // Callers must hold the write lock.
+    private boolean loadExisting() throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            return false;
+        }
+        map(channel.size());
+        int storedDimension = buffer.getInt(8);
+        int storedCapacity = buffer.getInt(12);
+        int storedUsed = buffer.getInt(16);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || storedDimension <= 0
+                || storedUsed < 0 || storedUsed > storedCapacity
+                || channel.size() < HEADER_BYTES + (long) storedCapacity * slotBytes(storedDimension)) {
+            log.warn("Ignoring unreadable article vector file; vectors will be re-embedded");
+            return false;
+        }
+        dimension = storedDimension;
+        capacity = storedCapacity;
+        slotsUsed = storedUsed;
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            if (buffer.getShort(slotOffset(slot)) == 0) {
+                freeSlots.add(slot);
+            } else {
+                slots.put(readKey(slot), slot);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Embeds every stored article that has no vector yet or changed after it was embedded.
+     * Only keys and timestamps are streamed from the table; content is read batch by batch.
+     */
+    private void backfill() {
+        if (!ready) {
+            return;
+        }
+        Map<String, Long> stale = new LinkedHashMap<>();
+        ao.stream(GeneratedArticle.class, Query.select("ID, ISSUE_KEY, STATUS, CREATED_AT, UPDATED_AT"), row -> {
+            if ("error".equals(row.getStatus())) {
+                return;
+            }
+            Long changedAt = row.getUpdatedAt() != null ? row.getUpdatedAt() : row.getCreatedAt();
+            long version = changedAt != null ? changedAt : 0L;
+            if (version > embeddedAt(row.getIssueKey())) {
+                stale.put(row.getIssueKey(), version);
+            }
+        });
+        if (stale.isEmpty()) {
+            return;
+        }
+        log.info("🧭 Embedding {} articles for semantic suggestions", stale.size());
+
+        List<String> keys = new ArrayList<>(stale.keySet());
+        for (int from = 0; from < keys.size() && !Thread.currentThread().isInterrupted(); from += EMBED_BATCH_SIZE) {
+            if (embedDisabledUntil.get() != 0) {
+                // Picked up again by the next backfill once the endpoint is retried.
+                break;
+            }
+            List<String> batch = keys.subList(from, Math.min(keys.size(), from + EMBED_BATCH_SIZE));
+            try {
+                embedBatch(batch);
+            } catch (Exception e) {
+                embedFailures.incrementAndGet();
+                if (embedDisabledUntil.get() == 0) {
+                    log.warn("Could not embed {} articles: {}", batch.size(), e.getMessage());
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void embedBatch(List<String> issueKeys) throws IOException {
+        String placeholders = String.join(", ", Collections.nCopies(issueKeys.size(), "?"));
+        GeneratedArticle[] rows = ao.find(GeneratedArticle.class,
+            Query.select().where("ISSUE_KEY IN (" + placeholders + ")", issueKeys.toArray()));
+
+        List<String> keys = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (GeneratedArticle row : rows) {
+            if (row.getContent() == null) {
+                continue;
+            }
+            Map<String, Object> article = gson.fromJson(row.getContent(), Map.class);
+            keys.add(row.getIssueKey());
+            texts.add(embeddingText(row.getIssueKey(), article));
+        }
+        if (texts.isEmpty()) {
+            return;
+        }
+        float[][] vectors = embed(BackendGateway.Endpoint.EMBEDDINGS, texts);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < keys.size(); i++) {
+            put(keys.get(i), now, vectors[i]);
+        }
+    }
+
+    private float[][] embed(BackendGateway.Endpoint endpoint, List<String> texts) throws IOException {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("texts", texts);
+        try (Response response = backendGateway.execute(endpoint,
+                backendGateway.postJson("/api/embed", gson.toJson(payload)))) {
+            if (response.code() == 404) {
+                disableEmbedding();
+                throw new IOException("Backend has no /api/embed endpoint");
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Embedding request failed with HTTP " + response.code());
+            }
+            EmbedResponse parsed = gson.fromJson(response.body().charStream(), EmbedResponse.class);
+            if (parsed == null || parsed.embeddings == null || parsed.embeddings.length != texts.size()) {
+                throw new IOException("Embedding response does not match the request");
+            }
+            return parsed.embeddings;
+        }
+    }
+
+    private void disableEmbedding() {
+        if (embedDisabledUntil.getAndSet(System.currentTimeMillis() + EMBED_RETRY_MS) == 0) {
+            log.warn("🧭 Backend has no /api/embed endpoint; semantic suggestions are off for the next hour");
+        }
+    }
+
+    void put(String issueKey, long embeddedAt, float[] vector) throws IOException {
+        byte[] key = issueKey.getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_KEY_BYTES) {
+            log.debug("Issue key {} is too long for the vector file", issueKey);
+            return;
+        }
+        normalize(vector);
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            if (vector.length != dimension) {
+                if (dimension != 0) {
+                    log.warn("Embedding dimension changed from {} to {}; re-embedding all articles", dimension, vector.length);
+                    worker.execute(this::backfill);
+                }
+                reset(vector.length);
+                synchronized (queryVectors) {
+                    queryVectors.clear();
+                }
+            }
+            Integer slot = slots.get(issueKey);
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? allocateSlot() : freeSlots.poll();
+            }
+            int offset = slotOffset(slot);
+            int base = (offset + SLOT_PREFIX_BYTES) / 4;
+            for (int i = 0; i < vector.length; i++) {
+                floats.put(base + i, vector[i]);
+            }
+            buffer.putLong(offset + EMBEDDED_AT_OFFSET, embeddedAt);
+            for (int i = 0; i < key.length; i++) {
+                buffer.put(offset + KEY_OFFSET + i, key[i]);
+            }
+            // The key length goes last: a slot counts as live only once it is complete.
+            buffer.putShort(offset, (short) key.length);
+            slots.put(issueKey, slot);
+            embedded.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(String issueKey) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(issueKey);
+            if (slot != null && buffer != null) {
+                buffer.putShort(slotOffset(slot), (short) 0);
+                freeSlots.add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long embeddedAt(String issueKey) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(issueKey);
+            return slot != null ? buffer.getLong(slotOffset(slot) + EMBEDDED_AT_OFFSET) : -1L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock.
+    private int allocateSlot() throws IOException {
+        if (slotsUsed == capacity) {
+            int grown = capacity * 2;
+            if (HEADER_BYTES + (long) grown * slotBytes(dimension) > Integer.MAX_VALUE) {
+                throw new IOException("Article vector file is full (" + capacity + " vectors)");
+            }
+            capacity = grown;
+            map(HEADER_BYTES + (long) capacity * slotBytes(dimension));
+            writeHeader();
+        }
+        int slot = slotsUsed++;
+        buffer.putInt(16, slotsUsed);
+        return slot;
+    }
+
+    // Callers must hold the write lock.
+    private void reset(int newDimension) throws IOException {
+        dimension = newDimension;
+        capacity = INITIAL_CAPACITY;
+        slotsUsed = 0;
+        slots.clear();
+        freeSlots.clear();
+        map(HEADER_BYTES + (long) capacity * slotBytes(dimension));
+        writeHeader();
+    }
+
+    // Callers must hold the write lock. Mapping past the end of the file extends it.
+    private void map(long size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        floats = buffer.asFloatBuffer();
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, dimension);
+        buffer.putInt(12, capacity);
+        buffer.putInt(16, slotsUsed);
+    }
+
+    private String readKey(int slot) {
+        int offset = slotOffset(slot);
+        byte[] key = new byte[buffer.getShort(offset)];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = buffer.get(offset + KEY_OFFSET + i);
+        }
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private int slotOffset(int slot) {
+        return HEADER_BYTES + slot * slotBytes(dimension);
+    }
+
+    private static int slotBytes(int dimension) {
+        return SLOT_PREFIX_BYTES + 4 * dimension;
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+    }
+
+    private static String embeddingText(String issueKey, Map<String, Object> article) {
+        Object title = article.get("title");
+        return truncate((title != null ? title : issueKey) + "\n" + ArticleIndex.articleText(article));
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String truncate(String text) {
+        return text.length() > MAX_TEXT_CHARS ? text.substring(0, MAX_TEXT_CHARS) : text;
+    }
+
+    private static class EmbedResponse {
+        private float[][] embeddings;
+    }
+}
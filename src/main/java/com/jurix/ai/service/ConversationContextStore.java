@@ -0,0 +1,319 @@
+package com.jurix.ai.service;
+
+import com.atlassian.jira.cluster.ClusterMessageConsumer;
+import com.atlassian.jira.cluster.ClusterMessagingService;
+import com.jurix.ai.config.ClusterChannels;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local context of recent chat conversations, sent with each chat request so the
+ * backend does not have to reload the conversation history. A conversation keeps its
+ * last few turns verbatim; older turns are compacted into a short extractive summary
+ * (the first sentence of each question and answer), so a conversation never holds more
+ * than the configured number of characters. Conversations are kept in an LRU bounded by
+ * count and expire after an idle period. A node that records a turn tells the other
+ * cluster nodes to drop their copy, so a conversation that moves between nodes starts
+ * again without context rather than with an outdated one.
+ * <p>
+ * Conversation ids come from the client, so each conversation remembers the user who
+ * started it and is neither returned to nor extended by anyone else. Anonymous chats
+ * keep no context.
+ */
+@Named
+public class ConversationContextStore implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ConversationContextStore.class);
+
+    static final String INVALIDATION_CHANNEL = ClusterChannels.CHAT_CONTEXT_INVALIDATION;
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    private static final long SWEEP_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int QUESTION_GIST_CHARS = 160;
+    private static final int ANSWER_GIST_CHARS = 240;
+
+    private final ClusterMessagingService clusterMessagingService;
+    private final JurixConfiguration configuration;
+    private final LinkedHashMap<String, Conversation> conversations = new LinkedHashMap<>(16, 0.75f, true);
+    private long storedBytes;
+    private ScheduledExecutorService sweeper;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong turns = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong remoteInvalidations = new AtomicLong();
+    private final AtomicLong ownerMismatches = new AtomicLong();
+
+    private final ClusterMessageConsumer invalidationConsumer = (channel, conversationId, senderId) -> {
+        remoteInvalidations.incrementAndGet();
+        forget(conversationId);
+    };
+
+    @Inject
+    public ConversationContextStore(ClusterMessagingService clusterMessagingService,
+                                    JurixConfiguration configuration) {
+        this.clusterMessagingService = clusterMessagingService;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        clusterMessagingService.registerListener(INVALIDATION_CHANNEL, invalidationConsumer);
+        sweeper = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("jurix-chat-context"));
+        sweeper.scheduleWithFixedDelay(this::expireIdle, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        clusterMessagingService.unregisterListener(INVALIDATION_CHANNEL, invalidationConsumer);
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        synchronized (conversations) {
+            conversations.clear();
+            storedBytes = 0;
+        }
+    }
+
+    /**
+     * The context to send with the next turn of a conversation: {@code summary} of the
+     * compacted turns, {@code recent_turns} as role/content messages, and
+     * {@code turn_count}. Returns {@code null} when this node holds nothing for it, or
+     * when the conversation belongs to another user.
+     */
+    public Map<String, Object> contextFor(String userKey, String conversationId) {
+        if (userKey == null || conversationId == null) {
+            return null;
+        }
+        synchronized (conversations) {
+            Conversation conversation = conversations.get(conversationId);
+            if (conversation != null && isIdle(conversation, System.currentTimeMillis())) {
+                remove(conversationId);
+                expirations.incrementAndGet();
+                conversation = null;
+            }
+            if (conversation == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (!userKey.equals(conversation.owner)) {
+                ownerMismatches.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            conversation.lastUsed = System.currentTimeMillis();
+
+            List<Map<String, Object>> recent = new ArrayList<>();
+            for (Turn turn : conversation.recent) {
+                recent.add(message("user", turn.question));
+                recent.add(message("assistant", turn.answer));
+            }
+            Map<String, Object> context = new LinkedHashMap<>();
+            context.put("summary", conversation.summary.toString());
+            context.put("recent_turns", recent);
+            context.put("turn_count", conversation.turnCount);
+            return context;
+        }
+    }
+
+    /**
+     * Appends a completed turn, compacting the oldest turns into the summary once the
+     * conversation is over its turn or size limit. Turns by a user other than the one who
+     * started the conversation are ignored.
+     */
+    public void recordTurn(String userKey, String conversationId, String question, String answer) {
+        if (userKey == null || conversationId == null || question == null || answer == null || answer.isEmpty()) {
+            return;
+        }
+        int maxChars = configuration.getChatContextMaxChars();
+        synchronized (conversations) {
+            Conversation conversation = conversations.get(conversationId);
+            if (conversation == null) {
+                conversation = new Conversation(userKey);
+                conversations.put(conversationId, conversation);
+            } else if (!userKey.equals(conversation.owner)) {
+                ownerMismatches.incrementAndGet();
+                return;
+            } else {
+                storedBytes -= conversation.weight();
+            }
+            conversation.recent.addLast(new Turn(clip(question, maxChars / 4), clip(answer, maxChars / 2)));
+            conversation.turnCount++;
+            conversation.lastUsed = System.currentTimeMillis();
+            compact(conversation, configuration.getChatContextMaxTurns(), maxChars);
+            storedBytes += conversation.weight();
+            evictOverflow();
+        }
+        turns.incrementAndGet();
+        clusterMessagingService.sendRemote(INVALIDATION_CHANNEL, conversationId);
+    }
+
+    public void forget(String conversationId) {
+        synchronized (conversations) {
+            remove(conversationId);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("turns", turns.get());
+        metrics.put("compactions", compactions.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("expirations", expirations.get());
+        metrics.put("remoteInvalidations", remoteInvalidations.get());
+        metrics.put("ownerMismatches", ownerMismatches.get());
+        synchronized (conversations) {
+            metrics.put("conversations", conversations.size());
+            metrics.put("bytes", storedBytes);
+        }
+        metrics.put("maxConversations", configuration.getChatContextMaxConversations());
+        metrics.put("maxChars", configuration.getChatContextMaxChars());
+        metrics.put("idleTtlMs", configuration.getChatContextIdleTtlMs());
+        return metrics;
+    }
+
+    private void expireIdle() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        synchronized (conversations) {
+            Iterator<Conversation> entries = conversations.values().iterator();
+            while (entries.hasNext()) {
+                Conversation conversation = entries.next();
+                if (isIdle(conversation, now)) {
+                    storedBytes -= conversation.weight();
+                    entries.remove();
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            expirations.addAndGet(expired);
+            log.debug("Expired {} idle chat conversations", expired);
+        }
+    }
+
+    // Callers must hold the conversations lock.
+    private void compact(Conversation conversation, int maxTurns, int maxChars) {
+        int summaryLimit = maxChars / 4;
+        while (conversation.recent.size() > 1
+                && (conversation.recent.size() > maxTurns || conversation.chars() > maxChars)) {
+            Turn oldest = conversation.recent.removeFirst();
+            conversation.summary.append("Q: ").append(gist(oldest.question, QUESTION_GIST_CHARS))
+                .append(" A: ").append(gist(oldest.answer, ANSWER_GIST_CHARS)).append('\n');
+            compactions.incrementAndGet();
+        }
+        // The summary keeps its newest lines; whole lines are dropped from the front.
+        StringBuilder summary = conversation.summary;
+        while (summary.length() > summaryLimit) {
+            int nextLine = summary.indexOf("\n");
+            summary.delete(0, nextLine >= 0 && nextLine < summary.length() - 1 ? nextLine + 1 : summary.length());
+        }
+    }
+
+    // Callers must hold the conversations lock.
+    private void evictOverflow() {
+        int maxConversations = configuration.getChatContextMaxConversations();
+        Iterator<Conversation> eldest = conversations.values().iterator();
+        while (conversations.size() > maxConversations && eldest.hasNext()) {
+            storedBytes -= eldest.next().weight();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Callers must hold the conversations lock.
+    private void remove(String conversationId) {
+        Conversation removed = conversations.remove(conversationId);
+        if (removed != null) {
+            storedBytes -= removed.weight();
+        }
+    }
+
+    private boolean isIdle(Conversation conversation, long now) {
+        return now - conversation.lastUsed > configuration.getChatContextIdleTtlMs();
+    }
+
+    private static Map<String, Object> message(String role, String content) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("role", role);
+        message.put("content", content);
+        return message;
+    }
+
+    /**
+     * The first sentence of {@code text}, whitespace-normalized and at most {@code max}
+     * characters long.
+     */
+    private static String gist(String text, int max) {
+        String normalized = text.trim().replaceAll("\\s+", " ");
+        int end = normalized.length();
+        for (int i = 0; i < normalized.length() - 1; i++) {
+            char c = normalized.charAt(i);
+            if ((c == '.' || c == '?' || c == '!') && normalized.charAt(i + 1) == ' ') {
+                end = i + 1;
+                break;
+            }
+        }
+        return clip(normalized.substring(0, end), max);
+    }
+
+    private static String clip(String text, int max) {
+        return text.length() > max ? text.substring(0, Math.max(0, max - 1)) + "…" : text;
+    }
+
+    private static class Turn {
+        private final String question;
+        private final String answer;
+
+        Turn(String question, String answer) {
+            this.question = question;
+            this.answer = answer;
+        }
+    }
+
+    private static class Conversation {
+        private final String owner;
+        private final Deque<Turn> recent = new ArrayDeque<>();
+        private final StringBuilder summary = new StringBuilder();
+        private int turnCount;
+        private long lastUsed;
+
+        Conversation(String owner) {
+            this.owner = owner;
+        }
+
+        int chars() {
+            int chars = summary.length();
+            for (Turn turn : recent) {
+                chars += turn.question.length() + turn.answer.length();
+            }
+            return chars;
+        }
+
+        // Java strings are UTF-16, so two bytes per character plus object overhead.
+        long weight() {
+            return 2L * chars() + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
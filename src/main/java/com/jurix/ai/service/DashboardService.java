@@ -1,28 +1,252 @@
 package com.jurix.ai.service;
 
+import com.google.gson.Gson;
+import com.jurix.ai.api.DashboardFetcher;
 import com.jurix.ai.api.JurixApiClient;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.service.DashboardUpdateService.UpdateEvent;
+import com.jurix.ai.util.NamedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.inject.Inject;
 import javax.inject.Named;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 
+/**
+ * Stale-while-revalidate cache of backend dashboards. Fresh entries are served directly;
+ * expired or invalidated entries are still served while a background refresh replaces them.
+ * Entries are invalidated by DashboardUpdateService events for their project, and the cache
+ * is bounded both by entry count and by the estimated size of the cached JSON.
+ * <p>
+ * An invalidation records the fetcher's current load generation for the project. Results
+ * from loads started at or before it, including single-flight calls joined after the
+ * invalidation, are not cached, so a refresh racing an update cannot bring back the old
+ * dashboard.
+ */
 @Component
-@Named("dashboardService") 
-public class DashboardService {
-    
+@Named("dashboardService")
+public class DashboardService implements DashboardUpdateService.UpdateListener, DisposableBean {
+
     private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
-    private final Map<String, Object> dashboardCache = new ConcurrentHashMap<>();
-    
+
+    public enum CacheStatus { HIT, STALE, MISS }
+
+    private final DashboardFetcher dashboardFetcher;
+    private final DashboardUpdateService updateService;
+    private final JurixConfiguration configuration;
+    private final Gson gson = new Gson();
+    private final LinkedHashMap<String, CacheEntry> dashboardCache = new LinkedHashMap<>(16, 0.75f, true);
+    // Guarded by the dashboardCache lock.
+    private final Map<String, Long> invalidatedThrough = new HashMap<>();
+    private final ThreadPoolExecutor refreshExecutor;
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong refreshesRejected = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleResultsDiscarded = new AtomicLong();
+
+    @Inject
+    public DashboardService(DashboardFetcher dashboardFetcher, DashboardUpdateService updateService,
+                            JurixConfiguration configuration) {
+        this.dashboardFetcher = dashboardFetcher;
+        this.updateService = updateService;
+        this.configuration = configuration;
+        this.refreshExecutor = new ThreadPoolExecutor(
+            2, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(100),
+            new NamedThreadFactory("jurix-dashboard-refresh"));
+        updateService.addUpdateListener(this);
+    }
+
+    public CachedDashboard getDashboard(String projectKey) throws Exception {
+        long now = System.currentTimeMillis();
+        CacheEntry entry;
+        synchronized (dashboardCache) {
+            entry = dashboardCache.get(projectKey);
+        }
+
+        if (entry != null) {
+            long age = now - entry.storedAt;
+            if (!entry.invalidated && age <= configuration.getDashboardCacheTtlMs()) {
+                hits.incrementAndGet();
+                return new CachedDashboard(entry.body, CacheStatus.HIT, entry.storedAt);
+            }
+            if (age <= configuration.getDashboardCacheMaxStaleMs()) {
+                staleServed.incrementAndGet();
+                refreshInBackground(projectKey, entry);
+                return new CachedDashboard(entry.body, CacheStatus.STALE, entry.storedAt);
+            }
+        }
+
+        misses.incrementAndGet();
+        DashboardFetcher.Result result = dashboardFetcher.fetch(projectKey);
+        if (result.isSuccessful()) {
+            store(projectKey, result.getBody(), result.getFetchedAt(), result.getGeneration());
+        }
+        return new CachedDashboard(result.getBody(), CacheStatus.MISS, result.getFetchedAt());
+    }
+
+    @Override
+    public void onUpdate(String projectKey, UpdateEvent event) {
+        synchronized (dashboardCache) {
+            invalidatedThrough.put(projectKey, dashboardFetcher.currentGeneration());
+            CacheEntry entry = dashboardCache.get(projectKey);
+            if (entry != null && !entry.invalidated) {
+                entry.invalidated = true;
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
     public void broadcastDashboardUpdate(String projectKey, JurixApiClient.DashboardResponse dashboard) {
-        dashboardCache.put(projectKey, dashboard);
+        store(projectKey, gson.toJson(dashboard), System.currentTimeMillis(), dashboardFetcher.nextGeneration());
         log.info("Broadcasting dashboard update for project: {}", projectKey);
     }
-    
+
     public Object getCachedDashboard(String projectKey) {
-        return dashboardCache.get(projectKey);
+        synchronized (dashboardCache) {
+            CacheEntry entry = dashboardCache.get(projectKey);
+            return entry != null ? entry.body : null;
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        synchronized (dashboardCache) {
+            metrics.put("entries", dashboardCache.size());
+            metrics.put("estimatedBytes", cachedBytes);
+        }
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("staleServed", staleServed.get());
+        metrics.put("refreshes", refreshes.get());
+        metrics.put("refreshFailures", refreshFailures.get());
+        metrics.put("refreshesRejected", refreshesRejected.get());
+        metrics.put("invalidations", invalidations.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("staleResultsDiscarded", staleResultsDiscarded.get());
+        metrics.put("maxEntries", configuration.getDashboardCacheMaxEntries());
+        metrics.put("maxBytes", configuration.getDashboardCacheMaxBytes());
+        return metrics;
+    }
+
+    @Override
+    public void destroy() {
+        updateService.removeUpdateListener(this);
+        refreshExecutor.shutdownNow();
+    }
+
+    private void refreshInBackground(String projectKey, CacheEntry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshes.incrementAndGet();
+                    DashboardFetcher.Result result = dashboardFetcher.fetchFresh(projectKey);
+                    if (result.isSuccessful()) {
+                        store(projectKey, result.getBody(), result.getFetchedAt(), result.getGeneration());
+                    } else {
+                        refreshFailures.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    refreshFailures.incrementAndGet();
+                    log.warn("Background dashboard refresh failed for project {}: {}", projectKey, e.getMessage());
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full or shutting down: keep serving stale and let the next read try again.
+            refreshesRejected.incrementAndGet();
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void store(String projectKey, String body, long storedAt, long generation) {
+        if (body == null) {
+            return;
+        }
+        CacheEntry entry = new CacheEntry(body, storedAt, generation);
+        synchronized (dashboardCache) {
+            Long fence = invalidatedThrough.get(projectKey);
+            CacheEntry current = dashboardCache.get(projectKey);
+            if ((fence != null && generation <= fence) || (current != null && generation < current.generation)) {
+                // Requested before the last invalidation, or older than what is cached.
+                staleResultsDiscarded.incrementAndGet();
+                return;
+            }
+            CacheEntry previous = dashboardCache.put(projectKey, entry);
+            if (previous != null) {
+                cachedBytes -= previous.estimatedBytes;
+            }
+            cachedBytes += entry.estimatedBytes;
+
+            int maxEntries = configuration.getDashboardCacheMaxEntries();
+            long maxBytes = configuration.getDashboardCacheMaxBytes();
+            Iterator<Map.Entry<String, CacheEntry>> eldest = dashboardCache.entrySet().iterator();
+            while ((dashboardCache.size() > maxEntries || cachedBytes > maxBytes) && eldest.hasNext()) {
+                Map.Entry<String, CacheEntry> candidate = eldest.next();
+                if (candidate.getValue() == entry) {
+                    continue;
+                }
+                cachedBytes -= candidate.getValue().estimatedBytes;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static class CacheEntry {
+        private final String body;
+        private final long storedAt;
+        private final long generation;
+        private final long estimatedBytes;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile boolean invalidated;
+
+        CacheEntry(String body, long storedAt, long generation) {
+            this.body = body;
+            this.storedAt = storedAt;
+            this.generation = generation;
+            // UTF-16 chars plus a rough allowance for the entry and map node
+            this.estimatedBytes = 2L * body.length() + 128;
+        }
+    }
+
+    public static class CachedDashboard {
+        private final String body;
+        private final CacheStatus status;
+        private final long fetchedAt;
+
+        public CachedDashboard(String body, CacheStatus status, long fetchedAt) {
+            this.body = body;
+            this.status = status;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public String getBody() { return body; }
+        public CacheStatus getStatus() { return status; }
+        public long getFetchedAt() { return fetchedAt; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+package com.jurix.ai.service;
+
+import com.jurix.ai.service.DashboardUpdateService.UpdateEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versioned dashboard snapshots per project. The version is bumped on every recorded
+ * update; the snapshot for a version is materialized lazily by the first reader and shared
+ * by everyone else at that version. Clients that send the version they already hold get
+ * a delta of changed metrics, tickets and predictions instead of the whole dashboard.
+ */
+@Named
+public class DashboardSnapshotService implements DashboardUpdateService.UpdateListener {
+    private static final Logger log = LoggerFactory.getLogger(DashboardSnapshotService.class);
+    private static final int RETAINED_SNAPSHOTS = 16;
+
+    private final Map<String, ProjectSnapshots> projects = new ConcurrentHashMap<>();
+
+    @Inject
+    public DashboardSnapshotService(DashboardUpdateService updateService) {
+        updateService.addUpdateListener(this);
+    }
+
+    @Override
+    public void onUpdate(String projectKey, UpdateEvent event) {
+        projects.computeIfAbsent(projectKey, k -> new ProjectSnapshots()).version.incrementAndGet();
+    }
+
+    public long getVersion(String projectKey) {
+        ProjectSnapshots snapshots = projects.get(projectKey);
+        return snapshots != null ? snapshots.version.get() : 0;
+    }
+
+    /**
+     * Returns the dashboard payload for a client that currently holds {@code clientVersion}:
+     * a delta when that version is still retained, otherwise the full snapshot.
+     */
+    public Map<String, Object> getDashboardSince(String projectKey, Long clientVersion,
+                                                 Supplier<Map<String, Object>> loader) {
+        ProjectSnapshots snapshots = projects.computeIfAbsent(projectKey, k -> new ProjectSnapshots());
+        Snapshot current = snapshots.current(loader);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("dashboardVersion", current.version);
+        if (clientVersion != null && clientVersion == current.version) {
+            result.put("dashboardChanged", false);
+            return result;
+        }
+
+        Snapshot base = clientVersion != null ? snapshots.get(clientVersion) : null;
+        if (base == null) {
+            result.put("dashboardChanged", true);
+            result.put("dashboardData", current.data);
+            return result;
+        }
+
+        result.put("dashboardChanged", true);
+        result.put("dashboardDelta", current.deltaFrom(base));
+        return result;
+    }
+
+    private static class ProjectSnapshots {
+        private final AtomicLong version = new AtomicLong();
+        private final LinkedHashMap<Long, Snapshot> retained = new LinkedHashMap<Long, Snapshot>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+                return size() > RETAINED_SNAPSHOTS;
+            }
+        };
+
+        Snapshot current(Supplier<Map<String, Object>> loader) {
+            long target = version.get();
+            synchronized (this) {
+                Snapshot snapshot = retained.get(target);
+                if (snapshot == null) {
+                    snapshot = new Snapshot(target, loader.get());
+                    retained.put(target, snapshot);
+                    log.debug("Materialized dashboard snapshot version {}", target);
+                }
+                return snapshot;
+            }
+        }
+
+        synchronized Snapshot get(long snapshotVersion) {
+            return retained.get(snapshotVersion);
+        }
+    }
+
+    private static class Snapshot {
+        private final long version;
+        private final Map<String, Object> data;
+        private final Map<String, Map<String, Object>> ticketsById;
+        private final Map<Long, Map<String, Object>> deltas = new ConcurrentHashMap<>();
+
+        Snapshot(long version, Map<String, Object> data) {
+            this.version = version;
+            this.data = data != null ? data : Collections.emptyMap();
+            this.ticketsById = indexTickets(this.data.get("tickets"));
+        }
+
+        Map<String, Object> deltaFrom(Snapshot base) {
+            return deltas.computeIfAbsent(base.version, v -> computeDelta(base));
+        }
+
+        private Map<String, Object> computeDelta(Snapshot base) {
+            Map<String, Object> delta = new HashMap<>();
+            delta.put("fromVersion", base.version);
+            delta.put("toVersion", version);
+
+            diffMap(asMap(base.data.get("metrics")), asMap(data.get("metrics")), delta, "metrics", "removedMetrics");
+            diffMap(asMap(base.data.get("predictions")), asMap(data.get("predictions")), delta, "predictions", "removedPredictions");
+
+            List<Object> changedTickets = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> entry : ticketsById.entrySet()) {
+                if (!Objects.equals(entry.getValue(), base.ticketsById.get(entry.getKey()))) {
+                    changedTickets.add(entry.getValue());
+                }
+            }
+            List<String> removedTickets = new ArrayList<>();
+            for (String ticketId : base.ticketsById.keySet()) {
+                if (!ticketsById.containsKey(ticketId)) {
+                    removedTickets.add(ticketId);
+                }
+            }
+            delta.put("tickets", changedTickets);
+            delta.put("removedTickets", removedTickets);
+
+            for (Map.Entry<String, Object> entry : data.entrySet()) {
+                String field = entry.getKey();
+                if (!"metrics".equals(field) && !"predictions".equals(field) && !"tickets".equals(field)
+                        && !Objects.equals(entry.getValue(), base.data.get(field))) {
+                    delta.put(field, entry.getValue());
+                }
+            }
+            return delta;
+        }
+
+        private static void diffMap(Map<String, Object> before, Map<String, Object> after,
+                                    Map<String, Object> delta, String changedKey, String removedKey) {
+            Map<String, Object> changed = new HashMap<>();
+            for (Map.Entry<String, Object> entry : after.entrySet()) {
+                if (!Objects.equals(entry.getValue(), before.get(entry.getKey()))) {
+                    changed.put(entry.getKey(), entry.getValue());
+                }
+            }
+            List<String> removed = new ArrayList<>();
+            for (String key : before.keySet()) {
+                if (!after.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+            delta.put(changedKey, changed);
+            delta.put(removedKey, removed);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> asMap(Object value) {
+            return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Map<String, Object>> indexTickets(Object tickets) {
+            Map<String, Map<String, Object>> index = new LinkedHashMap<>();
+            if (tickets instanceof List) {
+                int position = 0;
+                for (Object ticket : (List<Object>) tickets) {
+                    if (ticket instanceof Map) {
+                        Map<String, Object> ticketMap = (Map<String, Object>) ticket;
+                        Object id = ticketMap.containsKey("key") ? ticketMap.get("key") : ticketMap.get("id");
+                        index.put(id != null ? String.valueOf(id) : "#" + position, ticketMap);
+                    }
+                    position++;
+                }
+            }
+            return index;
+        }
+    }
+}
@@ -5,33 +5,41 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Named;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Named
 public class DashboardUpdateService {
     private static final Logger log = LoggerFactory.getLogger(DashboardUpdateService.class);
-    private final Map<String, List<UpdateEvent>> updates = new ConcurrentHashMap<>();
+    private final Map<String, UpdateRingBuffer> updates = new ConcurrentHashMap<>();
     private final int MAX_UPDATES_PER_PROJECT = 100;
+    private final List<UpdateListener> listeners = new CopyOnWriteArrayList<>();
     
     public void recordUpdate(String projectKey, UpdateEvent event) {
-        updates.computeIfAbsent(projectKey, k -> Collections.synchronizedList(new ArrayList<>()))
-               .add(0, event); 
-        
-        List<UpdateEvent> projectUpdates = updates.get(projectKey);
-        if (projectUpdates.size() > MAX_UPDATES_PER_PROJECT) {
-            projectUpdates.subList(MAX_UPDATES_PER_PROJECT, projectUpdates.size()).clear();
-        }
+        UpdateEvent stored = updates.computeIfAbsent(projectKey, k -> new UpdateRingBuffer(MAX_UPDATES_PER_PROJECT))
+               .add(event);
         
         log.info("Recorded update for project {} - Issue {} - Event {}", 
                  projectKey, event.issueKey, event.eventType);
+        
+        for (UpdateListener listener : listeners) {
+            try {
+                listener.onUpdate(projectKey, stored);
+            } catch (Exception e) {
+                log.error("Update listener failed for project {}", projectKey, e);
+            }
+        }
+    }
+    
+    public void addUpdateListener(UpdateListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeUpdateListener(UpdateListener listener) {
+        listeners.remove(listener);
     }
     
     public Map<String, Object> getUpdatesSince(String projectKey, long sinceTimestamp) {
-        List<UpdateEvent> projectUpdates = updates.getOrDefault(projectKey, new ArrayList<>());
-        
-        List<UpdateEvent> recentUpdates = projectUpdates.stream()
-            .filter(update -> update.timestamp > sinceTimestamp)
-            .collect(Collectors.toList());
+        List<UpdateEvent> recentUpdates = getEventsSince(projectKey, sinceTimestamp);
         
         Map<String, Object> result = new HashMap<>();
         result.put("projectKey", projectKey);
@@ -43,12 +51,7 @@ public class DashboardUpdateService {
             
             List<Map<String, Object>> updateList = new ArrayList<>();
             for (UpdateEvent update : recentUpdates) {
-                Map<String, Object> updateMap = new HashMap<>();
-                updateMap.put("issueKey", update.issueKey);
-                updateMap.put("eventType", update.eventType);
-                updateMap.put("status", update.status);
-                updateMap.put("timestamp", update.timestamp);
-                updateList.add(updateMap);
+                updateList.add(update.toMap());
             }
             result.put("updates", updateList);
         }
@@ -56,10 +59,27 @@ public class DashboardUpdateService {
         return result;
     }
     
+    public List<UpdateEvent> getEventsSince(String projectKey, long sinceTimestamp) {
+        UpdateRingBuffer projectUpdates = updates.get(projectKey);
+        return projectUpdates != null ? projectUpdates.since(sinceTimestamp) : Collections.emptyList();
+    }
+    
+    /**
+     * Events recorded after the one with {@code eventId}, newest first, or null when this node
+     * did not issue that id (for example before a restart).
+     */
+    public List<UpdateEvent> getEventsAfter(String projectKey, String eventId) {
+        UpdateRingBuffer projectUpdates = updates.get(projectKey);
+        return projectUpdates != null ? projectUpdates.after(eventId) : null;
+    }
+    
     public ProjectUpdateInfo getProjectUpdateInfo(String projectKey) {
         ProjectUpdateInfo info = new ProjectUpdateInfo(projectKey);
-        List<UpdateEvent> projectUpdates = updates.getOrDefault(projectKey, new ArrayList<>());
-        for (UpdateEvent update : projectUpdates) {
+        UpdateRingBuffer projectUpdates = updates.get(projectKey);
+        if (projectUpdates == null) {
+            return info;
+        }
+        for (UpdateEvent update : projectUpdates.snapshot()) {
             info.addUpdate(update);
         }
         
@@ -69,14 +89,48 @@ public class DashboardUpdateService {
         public final String issueKey;
         public final String status;
         public final String eventType;
+        public final List<String> eventTypes;
         public final long timestamp;
+        // Unique per recorded event, assigned by the project's ring buffer; null until recorded.
+        public final String id;
         
         public UpdateEvent(String issueKey, String status, String eventType, long timestamp) {
+            this(issueKey, status, Collections.singletonList(eventType), timestamp);
+        }
+        
+        public UpdateEvent(String issueKey, String status, List<String> eventTypes, long timestamp) {
+            this(issueKey, status, eventTypes, timestamp, null);
+        }
+        
+        private UpdateEvent(String issueKey, String status, List<String> eventTypes, long timestamp, String id) {
             this.issueKey = issueKey;
             this.status = status;
-            this.eventType = eventType;
+            this.eventType = eventTypes.get(eventTypes.size() - 1);
+            this.eventTypes = Collections.unmodifiableList(new ArrayList<>(eventTypes));
             this.timestamp = timestamp;
+            this.id = id;
         }
+        
+        UpdateEvent recorded(String id, long timestamp) {
+            return new UpdateEvent(issueKey, status, eventTypes, timestamp, id);
+        }
+        
+        public Map<String, Object> toMap() {
+            Map<String, Object> updateMap = new HashMap<>();
+            updateMap.put("issueKey", issueKey);
+            updateMap.put("eventType", eventType);
+            updateMap.put("eventTypes", eventTypes);
+            updateMap.put("status", status);
+            updateMap.put("timestamp", timestamp);
+            if (id != null) {
+                updateMap.put("id", id);
+            }
+            return updateMap;
+        }
+    }
+    
+    public interface UpdateListener {
+        void onUpdate(String projectKey, UpdateEvent event);
     }
     
     public static class ProjectUpdateInfo {
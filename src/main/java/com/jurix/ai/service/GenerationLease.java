@@ -0,0 +1,33 @@
+package com.jurix.ai.service;
+
+/**
+ * A time-limited, exclusive claim on a key held by one node. The fencing token increases
+ * with every successful acquisition of any key, so a holder whose lease expired can be
+ * told apart from the one that replaced it.
+ */
+public final class GenerationLease {
+    private final String key;
+    private final long token;
+    private final String owner;
+    private final long expiresAt;
+    private final String store;
+
+    public GenerationLease(String key, long token, String owner, long expiresAt, String store) {
+        this.key = key;
+        this.token = token;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+        this.store = store;
+    }
+
+    public String getKey() { return key; }
+    public long getToken() { return token; }
+    public String getOwner() { return owner; }
+    public long getExpiresAt() { return expiresAt; }
+    public String getStore() { return store; }
+
+    @Override
+    public String toString() {
+        return key + "#" + token + "@" + owner;
+    }
+}
@@ -0,0 +1,308 @@
+package com.jurix.ai.service;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.jurix.ai.config.JurixConfiguration;
+import com.jurix.ai.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide deduplication of article generation. A node must hold the lease for an
+ * issue before it calls the backend, so two Data Center nodes never generate the same
+ * article at once. Leases live in Redis when it is enabled and in the Jira database
+ * otherwise; either way they expire on their own if the holder dies.
+ * <p>
+ * The store is picked from the cluster-wide configuration, never from what a node can
+ * reach: with Redis enabled, a node that cannot reach it grants no leases (callers retry
+ * later) rather than falling back to the database, where a node that reaches Redis would
+ * not see its lease. The store that is not in use is still checked for live leases, so
+ * turning Redis on or off does not open a window while old leases lapse.
+ * A periodic sweeper removes leases that cannot expire by themselves.
+ */
+@Named
+public class GenerationLeaseService implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(GenerationLeaseService.class);
+
+    private static final long FIRST_SWEEP_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final ActiveObjects ao;
+    private final JurixConfiguration configuration;
+    private final String owner = UUID.randomUUID().toString();
+    private LeaseStore databaseStore;
+    private volatile LeaseStore redisStore;
+    private volatile JedisPool jedisPool;
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong contended = new AtomicLong();
+    private final AtomicLong unavailable = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong swept = new AtomicLong();
+    private final AtomicLong reconnectAttempts = new AtomicLong();
+
+    @Inject
+    public GenerationLeaseService(ActiveObjects ao, JurixConfiguration configuration) {
+        this.ao = ao;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("jurix-lease-scheduler"));
+        databaseStore = new ActiveObjectsLeaseStore(ao);
+        if (configuration.isRedisEnabled()) {
+            redisStore = connectRedis();
+        }
+        log.info("GenerationLeaseService using {} leases (owner {})",
+            configuration.isRedisEnabled() ? "redis" : databaseStore.getName(), owner);
+
+        // Redis may come up after the plugin, or be enabled later; keep trying while it is missing.
+        long reconnectInterval = Math.max(1000, configuration.getRedisReconnectIntervalMs());
+        scheduler.scheduleWithFixedDelay(this::tryReconnect,
+            reconnectInterval, reconnectInterval, TimeUnit.MILLISECONDS);
+
+        long interval = Math.max(1000, configuration.getLeaseSweepIntervalMs());
+        // The first sweep waits for ActiveObjects, which is not ready while the plugin enables.
+        scheduler.scheduleWithFixedDelay(this::sweepStaleLeases, FIRST_SWEEP_DELAY_MS, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        JedisPool pool = jedisPool;
+        if (pool != null && !pool.isClosed()) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Claims {@code key} for {@code ttlMs}. Returns {@code null} if another holder has it,
+     * or if Redis is enabled but this node cannot reach it.
+     */
+    public GenerationLease tryAcquire(String key, long ttlMs) {
+        LeaseStore active;
+        LeaseStore other;
+        if (configuration.isRedisEnabled()) {
+            active = redisStore;
+            other = databaseStore;
+            if (active == null) {
+                unavailable.incrementAndGet();
+                log.debug("Redis is enabled but not connected, not granting lease {}", key);
+                return null;
+            }
+        } else {
+            active = databaseStore;
+            other = redisStore;
+        }
+        if (other != null && isHeldIn(other, key)) {
+            contended.incrementAndGet();
+            log.debug("Lease {} is still held in the {} store", key, other.getName());
+            return null;
+        }
+        GenerationLease lease = active.tryAcquire(key, owner, ttlMs);
+        if (lease == null) {
+            contended.incrementAndGet();
+            log.debug("Lease {} is held elsewhere", key);
+            return null;
+        }
+        acquired.incrementAndGet();
+        return lease;
+    }
+
+    public void release(GenerationLease lease) {
+        if (lease == null) {
+            return;
+        }
+        try {
+            LeaseStore leaseStore = storeFor(lease);
+            if (leaseStore != null && leaseStore.release(lease)) {
+                released.incrementAndGet();
+            } else {
+                lost.incrementAndGet();
+                log.warn("Lease {} had already expired or been taken over", lease);
+            }
+        } catch (Exception e) {
+            log.error("Error releasing lease {}", lease, e);
+        }
+    }
+
+    /**
+     * Whether any node holds {@code key} in either store. An unreachable Redis counts as
+     * held, so callers do not treat its leases as gone.
+     */
+    public boolean isHeld(String key) {
+        if (databaseStore.isHeld(key)) {
+            return true;
+        }
+        LeaseStore redis = redisStore;
+        if (redis == null) {
+            return configuration.isRedisEnabled();
+        }
+        try {
+            return redis.isHeld(key);
+        } catch (Exception e) {
+            log.debug("Could not check Redis lease {}: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Fencing check: whether {@code lease} is still the live lease for its key. Holders
+     * call this before writing results so a holder that outlived its TTL cannot overwrite
+     * the work of the node that took over.
+     */
+    public boolean isCurrent(GenerationLease lease) {
+        if (lease == null) {
+            return false;
+        }
+        try {
+            LeaseStore leaseStore = storeFor(lease);
+            return leaseStore != null && leaseStore.isCurrent(lease);
+        } catch (Exception e) {
+            log.error("Error checking lease {}, treating it as lost", lease, e);
+            return false;
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("store", configuration.isRedisEnabled() ? "redis" : "database");
+        metrics.put("owner", owner);
+        metrics.put("acquired", acquired.get());
+        metrics.put("contended", contended.get());
+        metrics.put("unavailable", unavailable.get());
+        metrics.put("released", released.get());
+        metrics.put("lost", lost.get());
+        metrics.put("sweeps", sweeps.get());
+        metrics.put("swept", swept.get());
+        metrics.put("redis", getRedisMetrics());
+        return metrics;
+    }
+
+    private Map<String, Object> getRedisMetrics() {
+        Map<String, Object> redis = new LinkedHashMap<>();
+        redis.put("enabled", configuration.isRedisEnabled());
+        redis.put("reconnectAttempts", reconnectAttempts.get());
+        JedisPool pool = jedisPool;
+        boolean connected = pool != null && !pool.isClosed();
+        redis.put("connected", connected);
+        if (connected) {
+            redis.put("active", pool.getNumActive());
+            redis.put("idle", pool.getNumIdle());
+            redis.put("waiters", pool.getNumWaiters());
+            redis.put("meanBorrowWaitMs", pool.getMeanBorrowWaitTimeMillis());
+            redis.put("maxBorrowWaitMs", pool.getMaxBorrowWaitTimeMillis());
+            redis.put("created", pool.getCreatedCount());
+            redis.put("destroyedByValidation", pool.getDestroyedByBorrowValidationCount());
+        }
+        return redis;
+    }
+
+    private boolean isHeldIn(LeaseStore other, String key) {
+        try {
+            return other.isHeld(key);
+        } catch (RuntimeException e) {
+            if (other == databaseStore) {
+                throw e;
+            }
+            // Redis is switched off cluster-wide, so the database decides; its old leases only delay.
+            log.debug("Could not check Redis lease {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private LeaseStore storeFor(GenerationLease lease) {
+        return databaseStore.getName().equals(lease.getStore()) ? databaseStore : redisStore;
+    }
+
+    private void sweepStaleLeases() {
+        sweep(databaseStore);
+        LeaseStore redis = redisStore;
+        if (redis != null) {
+            sweep(redis);
+        }
+    }
+
+    private void sweep(LeaseStore leaseStore) {
+        try {
+            int removed = leaseStore.sweepStale(Math.max(10, configuration.getLeaseSweepBatchSize()));
+            sweeps.incrementAndGet();
+            swept.addAndGet(removed);
+            if (removed > 0) {
+                log.info("🧹 Cleaned up {} stale {} leases", removed, leaseStore.getName());
+            }
+        } catch (Exception e) {
+            log.error("Error sweeping stale {} leases", leaseStore.getName(), e);
+        }
+    }
+
+    private void tryReconnect() {
+        if (redisStore != null || !configuration.isRedisEnabled()) {
+            return;
+        }
+        reconnectAttempts.incrementAndGet();
+        LeaseStore connected = connectRedis();
+        if (connected != null) {
+            redisStore = connected;
+            log.info("✅ Redis became available, article generation leases are granted again");
+        }
+    }
+
+    private LeaseStore connectRedis() {
+        String host = configuration.getRedisHost();
+        int port = configuration.getRedisPort();
+        JedisPool pool = null;
+        try {
+            JedisPoolConfig poolConfig = new JedisPoolConfig();
+            poolConfig.setMaxTotal(configuration.getRedisPoolMaxTotal());
+            poolConfig.setMaxIdle(configuration.getRedisPoolMaxIdle());
+            poolConfig.setMinIdle(configuration.getRedisPoolMinIdle());
+            poolConfig.setBlockWhenExhausted(true);
+            poolConfig.setMaxWait(Duration.ofMillis(configuration.getRedisPoolMaxWaitMs()));
+            // Validate idle connections in the background instead of PINGing on every borrow and return.
+            poolConfig.setTestOnBorrow(configuration.isRedisPoolTestOnBorrow());
+            poolConfig.setTestOnReturn(false);
+            poolConfig.setTestWhileIdle(true);
+            poolConfig.setTimeBetweenEvictionRuns(Duration.ofMillis(configuration.getRedisPoolIdleCheckIntervalMs()));
+            poolConfig.setNumTestsPerEvictionRun(-1);
+            pool = new JedisPool(poolConfig, host, port, configuration.getRedisTimeoutMs(),
+                configuration.getRedisPassword(), configuration.getRedisDatabase(), configuration.isRedisSsl());
+
+            try (Jedis jedis = pool.getResource()) {
+                jedis.ping();
+            }
+            jedisPool = pool;
+            log.info("✅ Connected to Redis at {}:{} for article generation leases", host, port);
+            return new RedisLeaseStore(pool);
+        } catch (Exception e) {
+            log.warn("⚠️ Redis not available at {}:{} - article generation waits until it answers", host, port);
+            if (pool != null) {
+                try {
+                    pool.close();
+                } catch (Exception ex) {
+                }
+            }
+            return null;
+        }
+    }
+}
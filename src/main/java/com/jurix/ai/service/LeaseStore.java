@@ -0,0 +1,33 @@
+package com.jurix.ai.service;
+
+/**
+ * Backend for {@link GenerationLeaseService}. Implementations must make acquisition atomic
+ * across cluster nodes and let leases lapse on their own once their TTL has passed.
+ */
+interface LeaseStore {
+
+    String getName();
+
+    /**
+     * Claims {@code key} for {@code ttlMs}, or returns {@code null} if a live lease exists.
+     */
+    GenerationLease tryAcquire(String key, String owner, long ttlMs);
+
+    /**
+     * Releases the lease if it is still the current one for its key.
+     */
+    boolean release(GenerationLease lease);
+
+    boolean isHeld(String key);
+
+    /**
+     * Whether {@code lease} is unexpired and has not been replaced by a newer holder.
+     */
+    boolean isCurrent(GenerationLease lease);
+
+    /**
+     * Removes leases that can no longer lapse on their own, examining at most
+     * {@code batchSize} entries per round trip. Returns the number removed.
+     */
+    int sweepStale(int batchSize);
+}
@@ -0,0 +1,146 @@
+package com.jurix.ai.service;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.resps.ScanResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases stored as Redis keys set with {@code SET NX PX}, so the claim and its expiry are
+ * one atomic command. Fencing tokens come from a shared INCR counter; the key's value is
+ * {@code token:owner}, and release only deletes the key if that value still matches.
+ */
+class RedisLeaseStore implements LeaseStore {
+
+    static final String KEY_PREFIX = "article_in_progress:";
+    private static final String TOKEN_KEY = "article_lease_token";
+    // Keys written by the old setnx-then-expire code hold a bare timestamp and may lack a TTL.
+    private static final long LEGACY_IN_PROGRESS_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(15);
+    private static final String RELEASE_SCRIPT =
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end";
+
+    private final JedisPool jedisPool;
+
+    RedisLeaseStore(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    @Override
+    public String getName() {
+        return "redis";
+    }
+
+    @Override
+    public GenerationLease tryAcquire(String key, String owner, long ttlMs) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            long token = jedis.incr(TOKEN_KEY);
+            String result = jedis.set(KEY_PREFIX + key, token + ":" + owner, SetParams.setParams().nx().px(ttlMs));
+            if (!"OK".equals(result)) {
+                return null;
+            }
+            return new GenerationLease(key, token, owner, System.currentTimeMillis() + ttlMs, getName());
+        }
+    }
+
+    @Override
+    public boolean release(GenerationLease lease) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object deleted = jedis.eval(RELEASE_SCRIPT,
+                Collections.singletonList(KEY_PREFIX + lease.getKey()),
+                Collections.singletonList(lease.getToken() + ":" + lease.getOwner()));
+            return deleted instanceof Long && (Long) deleted > 0;
+        }
+    }
+
+    @Override
+    public boolean isHeld(String key) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.exists(KEY_PREFIX + key);
+        }
+    }
+
+    @Override
+    public boolean isCurrent(GenerationLease lease) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return (lease.getToken() + ":" + lease.getOwner()).equals(jedis.get(KEY_PREFIX + lease.getKey()));
+        }
+    }
+
+    /**
+     * Walks the lease keys with an incremental SCAN and deletes the ones without a TTL that
+     * will never expire by themselves. Each batch costs two pipelined round trips (PTTL/GET,
+     * then compare-and-delete), and SCAN never blocks the server the way KEYS does.
+     */
+    @Override
+    public int sweepStale(int batchSize) {
+        ScanParams params = new ScanParams().match(KEY_PREFIX + "*").count(batchSize);
+        String cursor = ScanParams.SCAN_POINTER_START;
+        int removed = 0;
+        try (Jedis jedis = jedisPool.getResource()) {
+            do {
+                ScanResult<String> page = jedis.scan(cursor, params);
+                cursor = page.getCursor();
+                List<String> keys = page.getResult();
+                if (!keys.isEmpty()) {
+                    removed += sweepPage(jedis, keys);
+                }
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+        }
+        return removed;
+    }
+
+    private int sweepPage(Jedis jedis, List<String> keys) {
+        List<Response<Long>> ttls = new ArrayList<>(keys.size());
+        List<Response<String>> values = new ArrayList<>(keys.size());
+        try (Pipeline pipeline = jedis.pipelined()) {
+            for (String key : keys) {
+                ttls.add(pipeline.pttl(key));
+                values.add(pipeline.get(key));
+            }
+            pipeline.sync();
+        }
+
+        long now = System.currentTimeMillis();
+        List<Response<Object>> deletes = new ArrayList<>();
+        try (Pipeline pipeline = jedis.pipelined()) {
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values.get(i).get();
+                if (ttls.get(i).get() == -1 && value != null && isStale(value, now)) {
+                    // Compare-and-delete, so a lease re-acquired since the GET survives.
+                    deletes.add(pipeline.eval(RELEASE_SCRIPT,
+                        Collections.singletonList(keys.get(i)), Collections.singletonList(value)));
+                }
+            }
+            pipeline.sync();
+        }
+
+        int removed = 0;
+        for (Response<Object> delete : deletes) {
+            Object result = delete.get();
+            if (result instanceof Long && (Long) result > 0) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static boolean isStale(String value, long now) {
+        if (value.indexOf(':') >= 0) {
+            // Current-format leases are always written with PX; one without a TTL is orphaned.
+            return true;
+        }
+        try {
+            return now - Long.parseLong(value) > LEGACY_IN_PROGRESS_TIMEOUT_MS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.jurix.ai.service;
+
+import com.atlassian.jira.bc.project.component.ProjectComponent;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.label.Label;
+import com.jurix.ai.api.BackendProxy.CapturedBody;
+import com.jurix.ai.config.JurixConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Node-local cache of backend suggestion answers. Entries are keyed by the issue and a
+ * fingerprint of the issue content the suggestions depend on (summary, description,
+ * labels, components, type and status, whitespace-normalized), so viewers of an unchanged
+ * issue share one backend round trip and a whitespace-only edit does not cost another.
+ * The cache is an LRU bounded by entry count, entries expire after a TTL, and all entries
+ * for an issue are dropped when an IssueEvent arrives for it.
+ */
+@Named
+public class SuggestionCache {
+    private static final Logger log = LoggerFactory.getLogger(SuggestionCache.class);
+
+    private final JurixConfiguration configuration;
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
+    public SuggestionCache(JurixConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Cache key for the suggestions of {@code issue} in one content encoding. Cached
+     * bodies are stored as the backend sent them, so gzip and identity answers are kept
+     * apart.
+     */
+    public String key(Issue issue, boolean gzip) {
+        return issue.getKey() + "|" + fingerprint(issue) + (gzip ? "|gzip" : "|identity");
+    }
+
+    public CapturedBody get(String key) {
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.storedAt > configuration.getSuggestionCacheTtlMs()) {
+                remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.body;
+        }
+    }
+
+    public void put(String key, String issueKey, CapturedBody body) {
+        CacheEntry entry = new CacheEntry(issueKey, body, System.currentTimeMillis());
+        synchronized (cache) {
+            CacheEntry previous = cache.put(key, entry);
+            if (previous != null) {
+                cachedBytes -= previous.body.getBody().length;
+            }
+            cachedBytes += body.getBody().length;
+            stores.incrementAndGet();
+
+            int maxEntries = configuration.getSuggestionCacheMaxEntries();
+            Iterator<Map.Entry<String, CacheEntry>> eldest = cache.entrySet().iterator();
+            while (cache.size() > maxEntries && eldest.hasNext()) {
+                CacheEntry candidate = eldest.next().getValue();
+                cachedBytes -= candidate.body.getBody().length;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached answer for the issue, whatever content it was computed from.
+     */
+    public void invalidate(String issueKey) {
+        int removed = 0;
+        synchronized (cache) {
+            Iterator<CacheEntry> entries = cache.values().iterator();
+            while (entries.hasNext()) {
+                CacheEntry entry = entries.next();
+                if (entry.issueKey.equals(issueKey)) {
+                    cachedBytes -= entry.body.getBody().length;
+                    entries.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            invalidations.addAndGet(removed);
+            log.debug("Dropped {} cached suggestion answers for {}", removed, issueKey);
+        }
+    }
+
+    public int getMaxEntryBytes() {
+        return configuration.getSuggestionCacheMaxEntryBytes();
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hitCount);
+        metrics.put("misses", misses.get());
+        metrics.put("hitRatio", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        metrics.put("stores", stores.get());
+        metrics.put("expirations", expirations.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("invalidations", invalidations.get());
+        synchronized (cache) {
+            metrics.put("entries", cache.size());
+            metrics.put("bytes", cachedBytes);
+        }
+        metrics.put("maxEntries", configuration.getSuggestionCacheMaxEntries());
+        metrics.put("ttlMs", configuration.getSuggestionCacheTtlMs());
+        return metrics;
+    }
+
+    // Callers must hold the cache lock.
+    private void remove(String key) {
+        CacheEntry removed = cache.remove(key);
+        if (removed != null) {
+            cachedBytes -= removed.body.getBody().length;
+        }
+    }
+
+    private static String fingerprint(Issue issue) {
+        List<String> labels = issue.getLabels().stream()
+            .map(Label::getLabel)
+            .sorted()
+            .collect(Collectors.toList());
+        List<String> components = issue.getComponents().stream()
+            .map(ProjectComponent::getName)
+            .sorted()
+            .collect(Collectors.toList());
+
+        StringBuilder content = new StringBuilder();
+        append(content, issue.getSummary());
+        append(content, issue.getDescription());
+        append(content, String.join(",", labels));
+        append(content, String.join(",", components));
+        append(content, issue.getIssueType() != null ? issue.getIssueType().getName() : null);
+        append(content, issue.getStatus() != null ? issue.getStatus().getName() : null);
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void append(StringBuilder content, String field) {
+        String normalized = field != null ? field.trim().replaceAll("\\s+", " ") : "";
+        // Length-prefix each field so values cannot run into each other.
+        content.append(normalized.length()).append(':').append(normalized).append('\n');
+    }
+
+    private static class CacheEntry {
+        private final String issueKey;
+        private final CapturedBody body;
+        private final long storedAt;
+
+        CacheEntry(String issueKey, CapturedBody body, long storedAt) {
+            this.issueKey = issueKey;
+            this.body = body;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.jurix.ai.service;
+
+import okhttp3.Call;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one live suggestion request per editor session and issue. A newer request
+ * supersedes the one in flight: its backend call is cancelled, which makes a blocked
+ * {@code Call.execute()} throw at once, so the older request's thread is released instead
+ * of waiting for an answer nobody will read. Clients may number their requests; one that
+ * arrives after a higher-numbered request for the same session and issue is rejected
+ * before it reaches the backend.
+ * <p>
+ * Only requests that name their editor session in {@link #SESSION_HEADER} are tracked.
+ * An HTTP session or remote address can be shared by several editors (tabs, users behind
+ * one proxy), so requests without the header never supersede each other.
+ */
+@Named
+public class SuggestionRequestTracker {
+    private static final Logger log = LoggerFactory.getLogger(SuggestionRequestTracker.class);
+
+    public static final String SESSION_HEADER = "X-Jurix-Suggest-Session";
+    public static final String SEQUENCE_HEADER = "X-Jurix-Suggest-Seq";
+
+    private final Map<String, Ticket> latest = new ConcurrentHashMap<>();
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong untracked = new AtomicLong();
+    private final AtomicLong supersededRequests = new AtomicLong();
+    private final AtomicLong staleRejected = new AtomicLong();
+
+    /**
+     * Registers a request and supersedes the previous one for the same session and issue.
+     * Returns {@code null} if a newer request has already been seen. Requests without an
+     * editor session get a ticket that is never superseded.
+     */
+    public Ticket begin(HttpServletRequest request, String issueKey) {
+        String editorSession = request.getHeader(SESSION_HEADER);
+        if (editorSession == null || editorSession.isEmpty()) {
+            started.incrementAndGet();
+            untracked.incrementAndGet();
+            return new Ticket(null, 0);
+        }
+        String key = editorSession + "|" + issueKey;
+        long sequence = parseSequence(request.getHeader(SEQUENCE_HEADER));
+        Ticket[] previous = new Ticket[1];
+        boolean[] stale = new boolean[1];
+        Ticket ticket = latest.compute(key, (k, current) -> {
+            if (current != null && sequence > 0 && sequence <= current.sequence) {
+                stale[0] = true;
+                return current;
+            }
+            previous[0] = current;
+            return new Ticket(key, sequence);
+        });
+        if (stale[0]) {
+            staleRejected.incrementAndGet();
+            log.debug("Rejecting out-of-order suggestion request {} for {}", sequence, key);
+            return null;
+        }
+        started.incrementAndGet();
+        if (previous[0] != null && previous[0].supersede()) {
+            supersededRequests.incrementAndGet();
+            log.debug("Superseded suggestion request for {}", key);
+        }
+        return ticket;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("started", started.get());
+        metrics.put("untracked", untracked.get());
+        metrics.put("superseded", supersededRequests.get());
+        metrics.put("staleRejected", staleRejected.get());
+        metrics.put("active", latest.size());
+        return metrics;
+    }
+
+    private static long parseSequence(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * One tracked request. The backend call is attached once it has been created, and the
+     * ticket is finished when the response has been written.
+     */
+    public class Ticket {
+        private final String key;
+        private final long sequence;
+        private Call call;
+        private boolean superseded;
+
+        Ticket(String key, long sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Attaches the backend call; cancels it straight away if the request was
+         * superseded before the call existed.
+         */
+        public synchronized void attach(Call call) {
+            this.call = call;
+            if (superseded) {
+                call.cancel();
+            }
+        }
+
+        public synchronized boolean isSuperseded() {
+            return superseded;
+        }
+
+        public void finish() {
+            if (key != null) {
+                latest.remove(key, this);
+            }
+        }
+
+        synchronized boolean supersede() {
+            if (superseded) {
+                return false;
+            }
+            superseded = true;
+            if (call != null) {
+                call.cancel();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.jurix.ai.service;
+
+import com.atlassian.jira.bc.project.component.ProjectComponent;
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.label.Label;
+import com.google.gson.Gson;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.config.JurixConfiguration;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the /api/suggest-articles request for an issue. Shared by the synchronous REST
+ * endpoint and the async servlet so both send the backend the same issue description.
+ * Before going to the backend both ask {@link #suggestLocally} whether the local
+ * {@link ArticleIndex}, or failing that the optional {@link ArticleVectorStore}, can
+ * answer on its own; when neither can, the lexical candidates travel with the backend
+ * request so the backend re-ranks them instead of starting from nothing.
+ */
+@Named
+public class SuggestionService {
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+
+    public static final String PATH_HEADER = "X-Jurix-Suggest-Path";
+    public static final String PATH_LOCAL = "local";
+    public static final String PATH_SEMANTIC = "semantic";
+    public static final String PATH_RERANK = "rerank";
+    public static final String PATH_BACKEND = "backend";
+
+    private final BackendGateway backendGateway;
+    private final ArticleIndex articleIndex;
+    private final ArticleVectorStore articleVectors;
+    private final JurixConfiguration configuration;
+    private final Gson gson = new Gson();
+
+    private final AtomicLong localServed = new AtomicLong();
+    private final AtomicLong semanticServed = new AtomicLong();
+    private final AtomicLong reranked = new AtomicLong();
+    private final AtomicLong backendOnly = new AtomicLong();
+
+    @Inject
+    public SuggestionService(BackendGateway backendGateway, ArticleIndex articleIndex,
+                             ArticleVectorStore articleVectors, JurixConfiguration configuration) {
+        this.backendGateway = backendGateway;
+        this.articleIndex = articleIndex;
+        this.articleVectors = articleVectors;
+        this.configuration = configuration;
+    }
+
+    public Issue findIssue(String issueKey) {
+        return issueKey != null ? ComponentAccessor.getIssueManager().getIssueObject(issueKey) : null;
+    }
+
+    public Request buildSuggestionRequest(Issue issue) {
+        return buildSuggestionRequest(issue, null);
+    }
+
+    /**
+     * Same as {@link #buildSuggestionRequest(Issue)}, with the local ranking of
+     * {@code local} attached as {@code candidates} when it found any.
+     */
+    public Request buildSuggestionRequest(Issue issue, LocalSuggestions local) {
+        Map<String, Object> issueData = describeIssue(issue);
+        if (local != null && !local.getHits().isEmpty()) {
+            List<Map<String, Object>> candidates = new ArrayList<>();
+            for (ArticleIndex.Hit hit : local.getHits()) {
+                Map<String, Object> candidate = new HashMap<>();
+                candidate.put("article_id", hit.getIssueKey());
+                candidate.put("title", hit.getTitle());
+                candidate.put("relevance_score", hit.getRelevance());
+                candidates.add(candidate);
+            }
+            issueData.put("candidates", candidates);
+        }
+        return backendGateway.postJson("/api/suggest-articles", gson.toJson(issueData));
+    }
+
+    /**
+     * Ranks the stored articles for the issue with the local index, and with the vector
+     * store when the lexical ranking is not confident. Returns {@code null} when local
+     * suggestions are turned off or the index is still being built; otherwise the result
+     * says whether it is confident enough to be served without the backend.
+     */
+    public LocalSuggestions suggestLocally(Issue issue) {
+        if (!configuration.isSuggestionLocalEnabled() || !articleIndex.isReady()) {
+            backendOnly.incrementAndGet();
+            return null;
+        }
+        long start = System.nanoTime();
+        StringBuilder query = new StringBuilder();
+        query.append(issue.getSummary() != null ? issue.getSummary() : "").append(' ');
+        query.append(issue.getDescription() != null ? issue.getDescription() : "").append(' ');
+        issue.getLabels().forEach(label -> query.append(label.getLabel()).append(' '));
+        issue.getComponents().forEach(component -> query.append(component.getName()).append(' '));
+
+        int maxResults = configuration.getSuggestionLocalMaxResults();
+        List<ArticleIndex.Hit> hits = articleIndex.search(query.toString(), issue.getKey(), maxResults);
+        double threshold = configuration.getSuggestionLocalMinConfidencePercent() / 100.0;
+        boolean confident = !hits.isEmpty()
+            && hits.get(0).getRelevance() >= threshold
+            && hits.get(0).getMatchedTerms().size() >= 2;
+
+        String path;
+        if (confident) {
+            path = PATH_LOCAL;
+            localServed.incrementAndGet();
+        } else {
+            // Only hits above the similarity floor come back, so any hit is confident.
+            List<ArticleIndex.Hit> similar = articleVectors.findSimilar(query.toString(), issue.getKey(), maxResults,
+                configuration.getSuggestionVectorMinSimilarityPercent() / 100.0);
+            if (!similar.isEmpty()) {
+                hits = similar;
+                path = PATH_SEMANTIC;
+                semanticServed.incrementAndGet();
+            } else if (!hits.isEmpty()) {
+                path = PATH_RERANK;
+                reranked.incrementAndGet();
+            } else {
+                path = PATH_BACKEND;
+                backendOnly.incrementAndGet();
+            }
+        }
+        LocalSuggestions local = new LocalSuggestions(hits, path, System.nanoTime() - start);
+        log.debug("Local suggestions for {}: {} hits via {}, {} µs", issue.getKey(), hits.size(), path,
+            TimeUnit.NANOSECONDS.toMicros(local.getQueryNanos()));
+        return local;
+    }
+
+    /**
+     * The suggestion response for a confident local result, in the backend's format with
+     * {@code served_by} and {@code query_time_ms} added.
+     */
+    public Map<String, Object> toResponse(LocalSuggestions local) {
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+        for (ArticleIndex.Hit hit : local.getHits()) {
+            Map<String, Object> suggestion = new LinkedHashMap<>();
+            suggestion.put("article_id", hit.getIssueKey());
+            suggestion.put("title", hit.getTitle());
+            suggestion.put("content", hit.getPreview());
+            suggestion.put("relevance_score", hit.getRelevance());
+            suggestion.put("suggestion_reason", hit.getMatchedTerms().isEmpty()
+                ? "Similar content"
+                : "Matches: " + String.join(", ", hit.getMatchedTerms()));
+            suggestions.add(suggestion);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("suggestions", suggestions);
+        response.put("served_by", local.getPath());
+        response.put("query_time_ms", local.getQueryNanos() / 1_000_000.0);
+        return response;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("localServed", localServed.get());
+        metrics.put("semanticServed", semanticServed.get());
+        metrics.put("reranked", reranked.get());
+        metrics.put("backendOnly", backendOnly.get());
+        metrics.put("index", articleIndex.getMetrics());
+        metrics.put("vectors", articleVectors.getMetrics());
+        return metrics;
+    }
+
+    public Map<String, Object> describeIssue(Issue issue) {
+        Map<String, Object> issueData = new HashMap<>();
+        issueData.put("issue_key", issue.getKey());
+        issueData.put("issue_summary", issue.getSummary() != null ? issue.getSummary() : "");
+        issueData.put("issue_description", issue.getDescription() != null ? issue.getDescription() : "");
+        issueData.put("issue_type", issue.getIssueType() != null ? issue.getIssueType().getName() : "");
+        issueData.put("issue_status", issue.getStatus() != null ? issue.getStatus().getName() : "");
+
+        List<String> labels = issue.getLabels().stream()
+            .map(Label::getLabel)
+            .collect(Collectors.toList());
+        issueData.put("labels", labels);
+
+        List<String> components = issue.getComponents().stream()
+            .map(ProjectComponent::getName)
+            .collect(Collectors.toList());
+        issueData.put("components", components);
+
+        if (issue.getPriority() != null) {
+            issueData.put("priority", issue.getPriority().getName());
+        }
+
+        if (issue.getAssignee() != null) {
+            issueData.put("assignee", issue.getAssignee().getDisplayName());
+        }
+
+        issueData.put("project_key", issue.getProjectObject().getKey());
+
+        log.info("Issue data extracted: summary='{}', type='{}', status='{}', labels={}, components={}",
+            issueData.get("issue_summary"),
+            issueData.get("issue_type"),
+            issueData.get("issue_status"),
+            labels,
+            components
+        );
+        return issueData;
+    }
+
+    /**
+     * Outcome of a local ranking: the hits, best first, and the path that should answer
+     * the request. Lexical and semantic results are confident enough to serve as they are.
+     */
+    public static class LocalSuggestions {
+        private final List<ArticleIndex.Hit> hits;
+        private final String path;
+        private final long queryNanos;
+
+        LocalSuggestions(List<ArticleIndex.Hit> hits, String path, long queryNanos) {
+            this.hits = hits;
+            this.path = path;
+            this.queryNanos = queryNanos;
+        }
+
+        public List<ArticleIndex.Hit> getHits() { return hits; }
+        public String getPath() { return path; }
+        public long getQueryNanos() { return queryNanos; }
+
+        public boolean isConfident() {
+            return PATH_LOCAL.equals(path) || PATH_SEMANTIC.equals(path);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.jurix.ai.service;
+
+import com.jurix.ai.service.DashboardUpdateService.UpdateEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free history of update events for one project.
+ * Writers claim a sequence number with a CAS on the cursor, which also clamps the stored
+ * timestamp so that timestamps never decrease with the sequence. That lets readers
+ * binary-search the retained window for "updates since" instead of scanning it.
+ * <p>
+ * Readers only look below the publish cursor, the first sequence that has been claimed but
+ * not yet stored. An event claimed early but stored late carries a timestamp clamped to
+ * its predecessors, so a reader that had already moved past it would never see it again.
+ * <p>
+ * Clamped timestamps are not unique, so every stored event also gets an id made of the
+ * buffer's epoch and its sequence. Stream clients resume from that id with {@link #after}.
+ */
+public class UpdateRingBuffer {
+    private final int capacity;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicReference<Cursor> cursor = new AtomicReference<>(new Cursor(0, Long.MIN_VALUE));
+    private final AtomicLong published = new AtomicLong();
+    // Tells ids from before a restart apart from this buffer's sequences.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public UpdateRingBuffer(int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public UpdateEvent add(UpdateEvent event) {
+        Cursor current;
+        Cursor next;
+        do {
+            current = cursor.get();
+            next = new Cursor(current.sequence + 1, Math.max(current.timestamp, event.timestamp));
+        } while (!cursor.compareAndSet(current, next));
+
+        UpdateEvent stored = event.recorded(epoch + "-" + current.sequence, next.timestamp);
+        Slot slot = new Slot(current.sequence, stored);
+        int index = index(current.sequence);
+        Slot existing;
+        do {
+            existing = slots.get(index);
+            if (existing != null && existing.sequence > slot.sequence) {
+                // A writer one full lap ahead already owns this slot; this event has aged out.
+                break;
+            }
+        } while (!slots.compareAndSet(index, existing, slot));
+        advancePublished();
+        return stored;
+    }
+
+    /**
+     * Events with a timestamp strictly after {@code sinceTimestamp}, newest first.
+     */
+    public List<UpdateEvent> since(long sinceTimestamp) {
+        long end = published.get();
+        long lo = Math.max(0, end - capacity);
+        long hi = end;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (isAfter(mid, sinceTimestamp)) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return collect(lo, end, sinceTimestamp);
+    }
+
+    /**
+     * Events stored after the one with {@code eventId}, newest first, or null when the id was
+     * not issued by this buffer.
+     */
+    public List<UpdateEvent> after(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator <= 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        long sequence;
+        try {
+            sequence = Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long end = published.get();
+        return collect(Math.max(Math.max(0, end - capacity), sequence + 1), end, Long.MIN_VALUE);
+    }
+
+    /**
+     * Every retained event, newest first.
+     */
+    public List<UpdateEvent> snapshot() {
+        long end = published.get();
+        return collect(Math.max(0, end - capacity), end, Long.MIN_VALUE);
+    }
+
+    /**
+     * Moves the publish cursor past every contiguous stored sequence. Each writer calls this
+     * after storing, so the last of a group of concurrent writers moves it past all of them.
+     */
+    private void advancePublished() {
+        long next;
+        while ((next = published.get()) < cursor.get().sequence && isStored(next)) {
+            published.compareAndSet(next, next + 1);
+        }
+    }
+
+    private boolean isStored(long sequence) {
+        Slot slot = slots.get(index(sequence));
+        // A slot from a newer lap means this sequence was stored, or has aged out, earlier.
+        return slot != null && slot.sequence >= sequence;
+    }
+
+    private boolean isAfter(long sequence, long sinceTimestamp) {
+        Slot slot = slots.get(index(sequence));
+        if (slot == null || slot.sequence < sequence) {
+            // Not stored yet, which only happens at or past the publish cursor.
+            return true;
+        }
+        if (slot.sequence > sequence) {
+            // Overwritten by a newer lap: this position is older than the retained window.
+            return false;
+        }
+        return slot.event.timestamp > sinceTimestamp;
+    }
+
+    private List<UpdateEvent> collect(long from, long to, long sinceTimestamp) {
+        List<UpdateEvent> result = new ArrayList<>((int) Math.max(0, to - from));
+        for (long sequence = to - 1; sequence >= from; sequence--) {
+            Slot slot = slots.get(index(sequence));
+            if (slot != null && slot.sequence == sequence && slot.event.timestamp > sinceTimestamp) {
+                result.add(slot.event);
+            }
+        }
+        return result;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static final class Cursor {
+        final long sequence;
+        final long timestamp;
+
+        Cursor(long sequence, long timestamp) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private static final class Slot {
+        final long sequence;
+        final UpdateEvent event;
+
+        Slot(long sequence, UpdateEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.jurix.ai.service;
+
+import com.google.gson.Gson;
+import com.jurix.ai.service.DashboardUpdateService.UpdateEvent;
+import com.jurix.ai.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes dashboard updates to Server-Sent Events subscribers. Each recorded update is
+ * serialized once per project and fanned out to that project's subscribers; connections
+ * are parked in servlet async mode and only occupy a writer thread while frames are
+ * actually being flushed. Writes are blocking, so a connection whose write has not
+ * finished within the write timeout is closed and gets no further frames.
+ * <p>
+ * A connection is only completed by its writer or while no write is in progress, never
+ * concurrently with a write.
+ */
+@Named
+public class UpdateStreamBroadcaster implements DashboardUpdateService.UpdateListener, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(UpdateStreamBroadcaster.class);
+
+    private static final int WRITER_THREADS = 4;
+    private static final int HEARTBEAT_SECONDS = 15;
+    private static final int MAX_BUFFERED_FRAMES = 256;
+    private static final long STREAM_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long WRITE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final long WRITE_CHECK_INTERVAL_MS = 1000;
+    private static final String HEARTBEAT_FRAME = ": heartbeat\n\n";
+
+    private final DashboardUpdateService updateService;
+    private final Gson gson = new Gson();
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService writerPool;
+    private final ScheduledExecutorService heartbeatScheduler;
+
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong overflowDisconnects = new AtomicLong();
+    private final AtomicLong writeTimeoutDisconnects = new AtomicLong();
+    private final AtomicLong replayDuplicatesDropped = new AtomicLong();
+
+    @Inject
+    public UpdateStreamBroadcaster(DashboardUpdateService updateService) {
+        this.updateService = updateService;
+        this.writerPool = Executors.newFixedThreadPool(WRITER_THREADS, new NamedThreadFactory("jurix-update-stream-writer"));
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("jurix-update-stream-heartbeat"));
+        this.heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        this.heartbeatScheduler.scheduleWithFixedDelay(this::closeStalledWriters,
+            WRITE_CHECK_INTERVAL_MS, WRITE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        updateService.addUpdateListener(this);
+    }
+
+    /**
+     * Registers the stream, then replays updates after the event with {@code lastEventId},
+     * or after {@code sinceTimestamp} when there is no id. An id this node did not issue
+     * replays everything retained. Live updates recorded during the replay are held back
+     * and sent after it, minus the ones the replay already contained.
+     */
+    public void subscribe(String projectKey, AsyncContext asyncContext, String lastEventId, Long sinceTimestamp) {
+        boolean replaying = lastEventId != null || sinceTimestamp != null;
+        Subscriber subscriber = new Subscriber(projectKey, asyncContext, replaying);
+        asyncContext.setTimeout(STREAM_TIMEOUT_MS);
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) { subscriber.close(); }
+            @Override
+            public void onTimeout(AsyncEvent event) { subscriber.closeAndAwaitWriter(); }
+            @Override
+            public void onError(AsyncEvent event) { subscriber.close(); }
+            @Override
+            public void onStartAsync(AsyncEvent event) { }
+        });
+        subscribers.computeIfAbsent(projectKey, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        subscriber.enqueue("retry: 5000\n\n");
+        if (replaying) {
+            List<UpdateEvent> missed = lastEventId != null ? updateService.getEventsAfter(projectKey, lastEventId) : null;
+            if (missed == null) {
+                missed = updateService.getEventsSince(projectKey,
+                    lastEventId == null ? sinceTimestamp : Long.MIN_VALUE);
+            }
+            // The ring buffer hands listeners the same instance it stores.
+            Set<UpdateEvent> replayed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = missed.size() - 1; i >= 0; i--) {
+                subscriber.enqueue(toFrame(missed.get(i)));
+                replayed.add(missed.get(i));
+            }
+            subscriber.finishReplay(replayed);
+        }
+        log.info("SSE subscriber added for project {} ({} total)", projectKey, getSubscriberCount());
+    }
+
+    @Override
+    public void onUpdate(String projectKey, UpdateEvent event) {
+        Set<Subscriber> projectSubscribers = subscribers.get(projectKey);
+        if (projectSubscribers == null || projectSubscribers.isEmpty()) {
+            return;
+        }
+        String frame = toFrame(event);
+        for (Subscriber subscriber : projectSubscribers) {
+            if (!subscriber.holdDuringReplay(event)) {
+                subscriber.enqueue(frame);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("subscribers", getSubscriberCount());
+        metrics.put("projects", subscribers.size());
+        metrics.put("framesSent", framesSent.get());
+        metrics.put("overflowDisconnects", overflowDisconnects.get());
+        metrics.put("writeTimeoutDisconnects", writeTimeoutDisconnects.get());
+        metrics.put("replayDuplicatesDropped", replayDuplicatesDropped.get());
+        return metrics;
+    }
+
+    @Override
+    public void destroy() {
+        updateService.removeUpdateListener(this);
+        heartbeatScheduler.shutdownNow();
+        for (Set<Subscriber> projectSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : new ArrayList<>(projectSubscribers)) {
+                subscriber.close();
+            }
+        }
+        writerPool.shutdownNow();
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscriber> projectSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : projectSubscribers) {
+                subscriber.enqueue(HEARTBEAT_FRAME);
+            }
+        }
+    }
+
+    private void closeStalledWriters() {
+        long now = System.currentTimeMillis();
+        for (Set<Subscriber> projectSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : projectSubscribers) {
+                long started = subscriber.writeStartedAt;
+                if (started > 0 && now - started > WRITE_TIMEOUT_MS) {
+                    writeTimeoutDisconnects.incrementAndGet();
+                    log.warn("SSE write for project {} blocked for {} ms, disconnecting", subscriber.projectKey, now - started);
+                    subscriber.close();
+                }
+            }
+        }
+    }
+
+    private String toFrame(UpdateEvent event) {
+        return "id: " + event.id + "\nevent: update\ndata: " + gson.toJson(event.toMap()) + "\n\n";
+    }
+
+    private class Subscriber {
+        private final String projectKey;
+        private final AsyncContext asyncContext;
+        private final Queue<String> frames = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Object writeLock = new Object();
+        private volatile long writeStartedAt;
+        // Guarded by writeLock.
+        private boolean writing;
+        private boolean completed;
+        // Live updates recorded while the replay is being queued; null once it is done.
+        private List<UpdateEvent> heldDuringReplay;
+
+        Subscriber(String projectKey, AsyncContext asyncContext, boolean replaying) {
+            this.projectKey = projectKey;
+            this.asyncContext = asyncContext;
+            this.heldDuringReplay = replaying ? new ArrayList<>() : null;
+        }
+
+        synchronized boolean holdDuringReplay(UpdateEvent event) {
+            if (heldDuringReplay == null) {
+                return false;
+            }
+            if (heldDuringReplay.size() >= MAX_BUFFERED_FRAMES) {
+                overflowDisconnects.incrementAndGet();
+                close();
+                return true;
+            }
+            heldDuringReplay.add(event);
+            return true;
+        }
+
+        synchronized void finishReplay(Set<UpdateEvent> replayed) {
+            for (UpdateEvent event : heldDuringReplay) {
+                if (replayed.contains(event)) {
+                    replayDuplicatesDropped.incrementAndGet();
+                } else {
+                    enqueue(toFrame(event));
+                }
+            }
+            heldDuringReplay = null;
+        }
+
+        void enqueue(String frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (buffered.incrementAndGet() > MAX_BUFFERED_FRAMES) {
+                overflowDisconnects.incrementAndGet();
+                log.warn("SSE subscriber for project {} fell behind, disconnecting", projectKey);
+                close();
+                return;
+            }
+            frames.add(frame);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writerPool.execute(this::drain);
+                } catch (Exception e) {
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            synchronized (writeLock) {
+                if (closed.get()) {
+                    draining.set(false);
+                    return;
+                }
+                writing = true;
+            }
+            writeStartedAt = System.currentTimeMillis();
+            try {
+                PrintWriter writer = asyncContext.getResponse().getWriter();
+                String frame;
+                while (!closed.get() && (frame = frames.poll()) != null) {
+                    buffered.decrementAndGet();
+                    writer.write(frame);
+                    framesSent.incrementAndGet();
+                }
+                writer.flush();
+                if (writer.checkError()) {
+                    close();
+                }
+            } catch (Exception e) {
+                close();
+            } finally {
+                writeStartedAt = 0;
+                synchronized (writeLock) {
+                    writing = false;
+                    // close() left completing a closed stream to this writer.
+                    if (closed.get()) {
+                        completeLocked();
+                    }
+                    writeLock.notifyAll();
+                }
+                draining.set(false);
+                if (!frames.isEmpty() && !closed.get()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        /**
+         * Stops sending to this subscriber. The async request is completed right away when no
+         * write is in progress, otherwise by the writer once its write returns.
+         */
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            Set<Subscriber> projectSubscribers = subscribers.get(projectKey);
+            if (projectSubscribers != null) {
+                projectSubscribers.remove(this);
+            }
+            frames.clear();
+            synchronized (writeLock) {
+                if (!writing) {
+                    completeLocked();
+                }
+            }
+        }
+
+        /**
+         * Closes the stream and waits up to the write timeout for an in-progress write to
+         * return, so the container does not complete a timed-out request under the writer.
+         */
+        void closeAndAwaitWriter() {
+            close();
+            long deadline = System.currentTimeMillis() + WRITE_TIMEOUT_MS;
+            synchronized (writeLock) {
+                long remaining;
+                while (writing && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    try {
+                        writeLock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        // Callers must hold the write lock.
+        private void completeLocked() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            try {
+                asyncContext.complete();
+            } catch (Exception e) {
+                log.debug("SSE stream for project {} already completed", projectKey);
+            }
+        }
+    }
+}
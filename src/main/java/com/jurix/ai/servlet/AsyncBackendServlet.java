@@ -0,0 +1,582 @@
+package com.jurix.ai.servlet;
+
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.sal.api.user.UserManager;
+import com.atlassian.sal.api.user.UserProfile;
+import com.google.gson.Gson;
+import com.jurix.ai.api.BackendCallLimiter;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.api.BackendProxy;
+import com.jurix.ai.rest.ChatController;
+import com.jurix.ai.rest.ChatService;
+import com.jurix.ai.service.SuggestionCache;
+import com.jurix.ai.service.SuggestionRequestTracker;
+import com.jurix.ai.service.SuggestionService;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Asynchronous variants of the long-running backend endpoints (chat, streaming chat,
+ * forecast and suggestions). The request thread only validates input and enqueues the
+ * backend call; the servlet response is parked in async mode and completed from the
+ * gateway's callback, so a slow LLM pipeline no longer holds a Tomcat thread. Each
+ * endpoint is capped by {@link BackendCallLimiter}; saturated endpoints answer 503.
+ */
+@Named("asyncBackendServlet")
+public class AsyncBackendServlet extends HttpServlet {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncBackendServlet.class);
+
+    private static final Pattern FORECAST_PATH = Pattern.compile("^/forecast/([A-Za-z0-9_]+)$");
+    private static final long TIMEOUT_MARGIN_MS = 5000;
+    // A streamed answer only has to keep producing tokens; bound the whole stream separately.
+    private static final long STREAM_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+    // Reply status for errors on a stream whose headers are already sent: written as an SSE error event.
+    private static final int STREAM_ERROR = 0;
+    // How long a timeout waits for an in-progress reply to notice the abort and complete.
+    private static final long ABORT_WAIT_MS = 5000;
+
+    private final BackendGateway backendGateway;
+    private final BackendCallLimiter callLimiter;
+    private final BackendProxy backendProxy;
+    private final ChatService chatService;
+    private final SuggestionService suggestionService;
+    private final SuggestionCache suggestionCache;
+    private final SuggestionRequestTracker requestTracker;
+    private final UserManager userManager;
+    private final Gson gson = new Gson();
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public AsyncBackendServlet(BackendGateway backendGateway, BackendCallLimiter callLimiter,
+                               BackendProxy backendProxy, ChatService chatService,
+                               SuggestionService suggestionService, SuggestionCache suggestionCache,
+                               SuggestionRequestTracker requestTracker, UserManager userManager) {
+        this.backendGateway = backendGateway;
+        this.callLimiter = callLimiter;
+        this.backendProxy = backendProxy;
+        this.chatService = chatService;
+        this.suggestionService = suggestionService;
+        this.suggestionCache = suggestionCache;
+        this.requestTracker = requestTracker;
+        this.userManager = userManager;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String path = request.getPathInfo() != null ? request.getPathInfo() : "";
+        try {
+            if ("/chat".equals(path)) {
+                handleChat(request, response);
+                return;
+            }
+            if ("/chat/stream".equals(path)) {
+                handleChatStream(request, response);
+                return;
+            }
+            if ("/suggestions/retrieve".equals(path)) {
+                handleSuggestions(request, response);
+                return;
+            }
+            Matcher forecast = FORECAST_PATH.matcher(path);
+            if (forecast.matches()) {
+                handleForecast(forecast.group(1), request, response);
+                return;
+            }
+            writeJson(response, HttpServletResponse.SC_NOT_FOUND, createErrorResponse("Unknown endpoint: " + path));
+        } catch (Exception e) {
+            log.error("Error dispatching async backend request {}", path, e);
+            writeJson(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, createErrorResponse(e.getMessage()));
+        }
+    }
+
+    private void handleChat(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        ChatController.ChatRequest chatRequest = objectMapper.readValue(request.getReader(), ChatController.ChatRequest.class);
+        if (chatRequest.getQuery() == null || chatRequest.getQuery().trim().isEmpty()) {
+            Map<String, Object> error = createErrorResponse("Query cannot be empty");
+            error.put("response", "I'm sorry, I encountered an error. Please try again.");
+            writeJson(response, HttpServletResponse.SC_BAD_REQUEST, error);
+            return;
+        }
+        UserProfile currentUser = userManager.getRemoteUser(request);
+        log.info("Async chat request from {}", currentUser != null ? currentUser.getUsername() : "anonymous");
+        String userKey = currentUser != null ? currentUser.getUserKey().getStringValue() : null;
+
+        String conversationId = chatRequest.getConversationId();
+        dispatch(request, response, BackendGateway.Endpoint.CHAT,
+            chatService.buildChatRequest(chatRequest.getQuery(), conversationId, userKey),
+            backendResponse -> new Reply(HttpServletResponse.SC_OK, chatService.completeTurn(
+                chatService.readChatResponse(backendResponse, conversationId), chatRequest.getQuery(), userKey)));
+    }
+
+    /**
+     * Streams a chat answer as Server-Sent Events: {@code token} events while the backend
+     * is generating, then one {@code final} event with the structured answer (or an
+     * {@code error} event). Each token is flushed to the client as soon as it arrives.
+     */
+    private void handleChatStream(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        ChatController.ChatRequest chatRequest = objectMapper.readValue(request.getReader(), ChatController.ChatRequest.class);
+        if (chatRequest.getQuery() == null || chatRequest.getQuery().trim().isEmpty()) {
+            writeJson(response, HttpServletResponse.SC_BAD_REQUEST, createErrorResponse("Query cannot be empty"));
+            return;
+        }
+        if (!callLimiter.tryAcquire(BackendGateway.Endpoint.CHAT)) {
+            response.setHeader("Retry-After", "5");
+            writeJson(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                createErrorResponse("Too many concurrent requests, please retry shortly"));
+            return;
+        }
+        UserProfile currentUser = userManager.getRemoteUser(request);
+        log.info("Streaming chat request from {}", currentUser != null ? currentUser.getUsername() : "anonymous");
+        String userKey = currentUser != null ? currentUser.getUserKey().getStringValue() : null;
+
+        String query = chatRequest.getQuery();
+        String conversationId = chatRequest.getConversationId();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/event-stream;charset=utf-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+        Request backendRequest = chatService.buildChatStreamRequest(query, conversationId, userKey);
+
+        if (!request.isAsyncSupported()) {
+            try (okhttp3.Response backendResponse = backendGateway.execute(BackendGateway.Endpoint.CHAT, backendRequest)) {
+                chatService.relayChatStream(backendResponse, query, conversationId, userKey, new SseChatWriter(response));
+            } catch (Exception e) {
+                log.error("Streaming chat failed", e);
+                writeSseEvent(response, "error", createErrorResponse(e.getMessage()));
+            } finally {
+                callLimiter.release(BackendGateway.Endpoint.CHAT);
+            }
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(STREAM_TIMEOUT_MS);
+        Call call = backendGateway.newCall(BackendGateway.Endpoint.CHAT, backendRequest);
+        AsyncCompletion completion = new AsyncCompletion(BackendGateway.Endpoint.CHAT, asyncContext, () -> { });
+        SseChatWriter writer = new SseChatWriter((HttpServletResponse) asyncContext.getResponse(), completion);
+
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) { }
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                call.cancel();
+                completion.abort(new Reply(STREAM_ERROR, createErrorResponse("Chat stream timed out")));
+            }
+            @Override
+            public void onError(AsyncEvent event) {
+                call.cancel();
+                completion.abort(null);
+            }
+            @Override
+            public void onStartAsync(AsyncEvent event) { }
+        });
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call failedCall, IOException e) {
+                log.error("Streaming chat call failed: {}", e.getMessage());
+                completion.finish(new Reply(STREAM_ERROR, createErrorResponse(e.getMessage())));
+            }
+
+            @Override
+            public void onResponse(Call completedCall, okhttp3.Response backendResponse) {
+                if (!completion.begin()) {
+                    // The stream already timed out or the client went away.
+                    backendResponse.close();
+                    return;
+                }
+                Reply reply = null;
+                try (okhttp3.Response closeable = backendResponse) {
+                    chatService.relayChatStream(closeable, query, conversationId, userKey, writer);
+                } catch (Exception e) {
+                    log.error("Error relaying chat stream", e);
+                    reply = new Reply(STREAM_ERROR, createErrorResponse(e.getMessage()));
+                }
+                completion.end(reply);
+            }
+        });
+    }
+
+    private void handleSuggestions(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        Map<String, Object> requestData = gson.fromJson(request.getReader(), Map.class);
+        String issueKey = requestData != null ? (String) requestData.get("issue_key") : null;
+        Issue issue = suggestionService.findIssue(issueKey);
+        if (issue == null) {
+            writeJson(response, HttpServletResponse.SC_NOT_FOUND, createErrorResponse("Issue not found"));
+            return;
+        }
+
+        String cacheKey = suggestionCache.key(issue, backendProxy.acceptsGzip(request.getHeader("Accept-Encoding")));
+        BackendProxy.CapturedBody cached = suggestionCache.get(cacheKey);
+        if (cached != null) {
+            response.setHeader("X-Jurix-Cache", "HIT");
+            backendProxy.replay(cached, request.getHeader("If-None-Match"), response);
+            return;
+        }
+
+        SuggestionService.LocalSuggestions local = suggestionService.suggestLocally(issue);
+        if (local != null && local.isConfident()) {
+            response.setHeader(SuggestionService.PATH_HEADER, local.getPath());
+            writeJson(response, HttpServletResponse.SC_OK, suggestionService.toResponse(local));
+            return;
+        }
+
+        SuggestionRequestTracker.Ticket ticket = requestTracker.begin(request, issueKey);
+        if (ticket == null) {
+            writeReply(response, supersededReply());
+            return;
+        }
+
+        response.setHeader("X-Jurix-Cache", "MISS");
+        response.setHeader(SuggestionService.PATH_HEADER, local != null ? local.getPath() : SuggestionService.PATH_BACKEND);
+        // A newer request from the same editor cancels this call; the reply then becomes 409.
+        dispatch(request, response, BackendGateway.Endpoint.SUGGESTIONS,
+            prepare(suggestionService.buildSuggestionRequest(issue, local), request),
+            backendResponse -> backendProxy.isRelayable(backendResponse)
+                ? new Reply(backendResponse.code(), backendResponse,
+                    body -> suggestionCache.put(cacheKey, issue.getKey(), body), suggestionCache.getMaxEntryBytes())
+                : new Reply(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, createErrorResponse("Failed to get suggestions")),
+            ticket::attach, ticket::finish);
+    }
+
+    private void handleForecast(String projectKey, HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        StringBuilder requestBody = new StringBuilder();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = request.getReader().read(buffer)) != -1) {
+            requestBody.append(buffer, 0, read);
+        }
+        log.info("Async forecast requested for project: {}", projectKey);
+
+        dispatch(request, response, BackendGateway.Endpoint.FORECAST,
+            prepare(backendGateway.postJson("/api/forecast/" + projectKey, requestBody.toString()), request),
+            backendResponse -> new Reply(backendResponse.code(), backendResponse));
+    }
+
+    /**
+     * Runs the backend call for {@code endpoint} and writes the handler's reply, or answers
+     * 503 straight away if the endpoint is saturated. The reply is written while the backend
+     * response is still open, so a handler can hand back the open response to be relayed
+     * without reading it into memory first.
+     */
+    private void dispatch(HttpServletRequest request, HttpServletResponse response,
+                             BackendGateway.Endpoint endpoint, Request backendRequest,
+                             ResponseHandler handler) throws IOException {
+        dispatch(request, response, endpoint, backendRequest, handler, call -> { }, () -> { });
+    }
+
+    /**
+     * As above; {@code onCall} sees the backend call before it starts, so the caller can
+     * cancel it later, and {@code onDone} runs once the request has been answered. A call
+     * cancelled that way is answered 409.
+     */
+    private void dispatch(HttpServletRequest request, HttpServletResponse response,
+                             BackendGateway.Endpoint endpoint, Request backendRequest,
+                             ResponseHandler handler, Consumer<Call> onCall, Runnable onDone) throws IOException {
+        if (!callLimiter.tryAcquire(endpoint)) {
+            onDone.run();
+            response.setHeader("Retry-After", "5");
+            writeJson(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                createErrorResponse("Too many concurrent requests, please retry shortly"));
+            return;
+        }
+
+        if (!request.isAsyncSupported()) {
+            log.debug("Async not supported, running {} call on the request thread", endpoint);
+            Call call = backendGateway.newCall(endpoint, backendRequest);
+            onCall.accept(call);
+            try (okhttp3.Response backendResponse = call.execute()) {
+                writeReply(response, handler.handle(backendResponse));
+            } catch (Exception e) {
+                if (!call.isCanceled()) {
+                    log.error("{} backend call failed", endpoint, e);
+                }
+                if (!response.isCommitted()) {
+                    response.resetBuffer();
+                    writeReply(response, call.isCanceled()
+                        ? supersededReply()
+                        : new Reply(HttpServletResponse.SC_BAD_GATEWAY, createErrorResponse(e.getMessage())));
+                }
+            } finally {
+                callLimiter.release(endpoint);
+                onDone.run();
+            }
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(TimeUnit.SECONDS.toMillis(
+            endpoint.getConnectTimeoutSeconds() + endpoint.getReadTimeoutSeconds()) + TIMEOUT_MARGIN_MS);
+        Call call = backendGateway.newCall(endpoint, backendRequest);
+        onCall.accept(call);
+        AsyncCompletion completion = new AsyncCompletion(endpoint, asyncContext, onDone);
+
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) { }
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                call.cancel();
+                completion.abort(new Reply(HttpServletResponse.SC_GATEWAY_TIMEOUT,
+                    createErrorResponse("Backend did not answer in time")));
+            }
+            @Override
+            public void onError(AsyncEvent event) {
+                call.cancel();
+                completion.abort(null);
+            }
+            @Override
+            public void onStartAsync(AsyncEvent event) { }
+        });
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call failedCall, IOException e) {
+                if (failedCall.isCanceled()) {
+                    log.debug("{} backend call cancelled", endpoint);
+                    completion.finish(supersededReply());
+                    return;
+                }
+                log.error("{} backend call failed: {}", endpoint, e.getMessage());
+                completion.finish(new Reply(HttpServletResponse.SC_BAD_GATEWAY, createErrorResponse(e.getMessage())));
+            }
+
+            @Override
+            public void onResponse(Call completedCall, okhttp3.Response backendResponse) {
+                try (okhttp3.Response closeable = backendResponse) {
+                    if (!completion.begin()) {
+                        return;
+                    }
+                    Reply reply;
+                    try {
+                        reply = handler.handle(closeable);
+                    } catch (Exception e) {
+                        log.error("Error handling {} backend response", endpoint, e);
+                        reply = new Reply(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, createErrorResponse(e.getMessage()));
+                    }
+                    // End before the response closes: pass-through replies still read its body.
+                    completion.end(reply);
+                }
+            }
+        });
+    }
+
+    private void writeReply(HttpServletResponse response, Reply reply) throws IOException {
+        if (reply.status == STREAM_ERROR) {
+            writeSseEvent(response, "error", reply.entity);
+        } else if (reply.entity instanceof okhttp3.Response) {
+            backendProxy.relay((okhttp3.Response) reply.entity, response, reply.capture, reply.maxCaptureBytes);
+        } else if (reply.entity instanceof String) {
+            response.setStatus(reply.status);
+            response.setContentType("application/json;charset=utf-8");
+            response.getWriter().write((String) reply.entity);
+        } else {
+            writeJson(response, reply.status, reply.entity);
+        }
+    }
+
+    private void writeJson(HttpServletResponse response, int status, Object entity) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json;charset=utf-8");
+        objectMapper.writeValue(response.getWriter(), entity);
+    }
+
+    private void writeSseEvent(HttpServletResponse response, String event, Object data) throws IOException {
+        String frame = "event: " + event + "\ndata: " + objectMapper.writeValueAsString(data) + "\n\n";
+        // The relay thread and a timeout may both write; keep frames whole.
+        synchronized (response) {
+            PrintWriter writer = response.getWriter();
+            writer.write(frame);
+            writer.flush();
+            response.flushBuffer();
+        }
+    }
+
+    private Request prepare(Request backendRequest, HttpServletRequest request) {
+        return backendProxy.prepare(backendRequest, request.getHeader("Accept-Encoding"), request.getHeader("If-None-Match"));
+    }
+
+    private Reply supersededReply() {
+        Map<String, Object> error = createErrorResponse("Superseded by a newer suggestion request");
+        error.put("status", "superseded");
+        return new Reply(HttpServletResponse.SC_CONFLICT, error);
+    }
+
+    private Map<String, Object> createErrorResponse(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("error", message);
+        return error;
+    }
+
+    /**
+     * Makes sure an async request is answered and its limiter slot released exactly once,
+     * whichever of callback, timeout or client error comes first. The first path to
+     * {@link #begin()} owns the request; the slot is released only after its reply has been
+     * written, so a relayed body still counts against the endpoint's limit.
+     * <p>
+     * A timeout or client error that loses the race does not complete the request itself:
+     * it marks the request aborted, so the owner stops writing, and waits for the owner to
+     * complete it. The request is therefore never completed while a write is in progress.
+     */
+    private class AsyncCompletion {
+        private final BackendGateway.Endpoint endpoint;
+        private final AsyncContext asyncContext;
+        private final Runnable onDone;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final CountDownLatch ended = new CountDownLatch(1);
+        private volatile boolean aborted;
+
+        AsyncCompletion(BackendGateway.Endpoint endpoint, AsyncContext asyncContext, Runnable onDone) {
+            this.endpoint = endpoint;
+            this.asyncContext = asyncContext;
+            this.onDone = onDone;
+        }
+
+        boolean begin() {
+            return finished.compareAndSet(false, true);
+        }
+
+        void finish(Reply reply) {
+            if (begin()) {
+                end(reply);
+            }
+        }
+
+        /**
+         * Called from the container's timeout and error events. If the backend callback
+         * already owns the request, stops its writer and waits for it to complete.
+         */
+        void abort(Reply reply) {
+            if (begin()) {
+                end(reply);
+                return;
+            }
+            aborted = true;
+            try {
+                if (!ended.await(ABORT_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    log.warn("⚠️ {} reply still being written {} ms after abort", endpoint, ABORT_WAIT_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        boolean isAborted() {
+            return aborted;
+        }
+
+        // Only called by the path that won begin().
+        void end(Reply reply) {
+            try {
+                if (reply != null && !aborted) {
+                    writeReply((HttpServletResponse) asyncContext.getResponse(), reply);
+                }
+            } catch (Exception e) {
+                log.debug("Could not write {} response, client probably went away", endpoint);
+            } finally {
+                try {
+                    asyncContext.complete();
+                } catch (IllegalStateException e) {
+                    log.debug("{} async request already completed", endpoint);
+                } finally {
+                    ended.countDown();
+                    callLimiter.release(endpoint);
+                    onDone.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes streamed chat events to the client and flushes after each one.
+     */
+    private class SseChatWriter implements ChatService.ChatStreamListener {
+        private final HttpServletResponse response;
+        // Null for synchronous streams, which have no container timeout.
+        private final AsyncCompletion completion;
+
+        SseChatWriter(HttpServletResponse response) {
+            this(response, null);
+        }
+
+        SseChatWriter(HttpServletResponse response, AsyncCompletion completion) {
+            this.response = response;
+            this.completion = completion;
+        }
+
+        @Override
+        public void onToken(String text) throws IOException {
+            checkNotAborted();
+            Map<String, Object> token = new HashMap<>();
+            token.put("text", text);
+            writeSseEvent(response, "token", token);
+        }
+
+        @Override
+        public void onComplete(ChatController.ChatResponse chatResponse) throws IOException {
+            checkNotAborted();
+            writeSseEvent(response, "final", chatResponse);
+        }
+
+        private void checkNotAborted() throws IOException {
+            if (completion != null && completion.isAborted()) {
+                throw new IOException("Chat stream aborted");
+            }
+        }
+    }
+
+    private interface ResponseHandler {
+        Reply handle(okhttp3.Response backendResponse) throws Exception;
+    }
+
+    private static class Reply {
+        private final int status;
+        private final Object entity;
+        // For relayed backend responses: receives a copy of the body once it is written.
+        private final Consumer<BackendProxy.CapturedBody> capture;
+        private final int maxCaptureBytes;
+
+        Reply(int status, Object entity) {
+            this(status, entity, null, 0);
+        }
+
+        Reply(int status, Object entity, Consumer<BackendProxy.CapturedBody> capture, int maxCaptureBytes) {
+            this.status = status;
+            this.entity = entity;
+            this.capture = capture;
+            this.maxCaptureBytes = maxCaptureBytes;
+        }
+    }
+}
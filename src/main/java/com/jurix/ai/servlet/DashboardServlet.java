@@ -8,6 +8,7 @@ import com.atlassian.jira.user.ApplicationUser;
 import com.atlassian.templaterenderer.TemplateRenderer;
 import com.atlassian.plugin.spring.scanner.annotation.imports.ComponentImport;
 import com.google.gson.Gson;
+import com.jurix.ai.config.JurixConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,11 +31,14 @@ public class DashboardServlet extends HttpServlet {
     @ComponentImport
     private final TemplateRenderer templateRenderer;
     
+    private final JurixConfiguration configuration;
+    
     private final Gson gson = new Gson();
     
     @Inject
-    public DashboardServlet(@ComponentImport TemplateRenderer templateRenderer) {
+    public DashboardServlet(@ComponentImport TemplateRenderer templateRenderer, JurixConfiguration configuration) {
         this.templateRenderer = templateRenderer;
+        this.configuration = configuration;
     }
     
     @Override
@@ -75,7 +79,7 @@ public class DashboardServlet extends HttpServlet {
         
         context.put("dashboardData", "{}"); 
         
-        context.put("apiBaseUrl", "http://host.docker.internal:5001");
+        context.put("apiBaseUrl", configuration.getBackendUrl());
         
         context.put("jsProjectKey", projectKey);
         
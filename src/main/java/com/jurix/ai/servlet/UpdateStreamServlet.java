@@ -0,0 +1,106 @@
+package com.jurix.ai.servlet;
+
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.user.ApplicationUser;
+import com.google.gson.Gson;
+import com.jurix.ai.service.DashboardUpdateService;
+import com.jurix.ai.service.UpdateStreamBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+@Named("updateStreamServlet")
+public class UpdateStreamServlet extends HttpServlet {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateStreamServlet.class);
+
+    private final UpdateStreamBroadcaster broadcaster;
+    private final DashboardUpdateService updateService;
+    private final Gson gson = new Gson();
+
+    @Inject
+    public UpdateStreamServlet(UpdateStreamBroadcaster broadcaster, DashboardUpdateService updateService) {
+        this.broadcaster = broadcaster;
+        this.updateService = updateService;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        JiraAuthenticationContext authContext = ComponentAccessor.getJiraAuthenticationContext();
+        ApplicationUser user = authContext.getLoggedInUser();
+        if (user == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        String projectKey = request.getParameter("projectKey");
+        if (projectKey == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Project key is required");
+            return;
+        }
+
+        Project project = ComponentAccessor.getProjectManager().getProjectByCurrentKey(projectKey);
+        if (project == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Project not found");
+            return;
+        }
+        if (!ComponentAccessor.getPermissionManager()
+                .hasPermission(com.atlassian.jira.permission.ProjectPermissions.BROWSE_PROJECTS,
+                              project, user)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied");
+            return;
+        }
+
+        String lastEventId = request.getHeader("Last-Event-ID");
+        Long since = parseSince(request.getParameter("since"));
+        if (lastEventId != null && parseSince(lastEventId) != null) {
+            // Ids from before event ids were unique were plain timestamps.
+            since = parseSince(lastEventId);
+            lastEventId = null;
+        }
+
+        if (!request.isAsyncSupported()) {
+            // Without async the request cannot be parked, so answer at once like one regular
+            // poll; the JSON reply makes the dashboard's EventSource fail and switch to polling.
+            log.debug("Async not supported for update stream, answering with a single poll response");
+            Map<String, Object> updates = updateService.getUpdatesSince(projectKey,
+                since != null ? since : System.currentTimeMillis() - (5 * 60 * 1000));
+            updates.put("streaming", false);
+            response.setContentType("application/json;charset=utf-8");
+            response.getWriter().write(gson.toJson(updates));
+            return;
+        }
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+        response.flushBuffer();
+
+        AsyncContext asyncContext = request.startAsync();
+        broadcaster.subscribe(projectKey, asyncContext, lastEventId, since);
+    }
+
+    private Long parseSince(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.jurix.ai.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NamedThreadFactory implements ThreadFactory {
+    private final String prefix;
+    private final boolean daemon;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public NamedThreadFactory(String prefix) {
+        this(prefix, true);
+    }
+
+    public NamedThreadFactory(String prefix, boolean daemon) {
+        this.prefix = prefix;
+        this.daemon = daemon;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+        thread.setDaemon(daemon);
+        return thread;
+    }
+}
@@ -0,0 +1,66 @@
+package com.jurix.ai.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs the loader,
+ * everyone arriving while it is in flight waits for and shares its result (or failure).
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    public V execute(K key, Callable<V> loader) throws Exception {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            collapsed.incrementAndGet();
+            return await(existing);
+        }
+
+        issued.incrementAndGet();
+        try {
+            V value = loader.call();
+            call.complete(value);
+            return value;
+        } catch (Throwable t) {
+            // Errors too: followers waiting on the call must never be left hanging.
+            call.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    public long getIssued() {
+        return issued.get();
+    }
+
+    public long getCollapsed() {
+        return collapsed.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> call) throws Exception {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -150,6 +150,10 @@
                     if (data.article) {
                         this.currentArticle = data;
                         this.showArticleModal('article', data);
+                    } else if (data.jobId) {
+                        this.showArticleModal('error', {
+                            message: 'The article is being generated. Please check back in a minute.'
+                        });
                     } else {
                         this.showArticleModal('error', {
                             message: 'No article has been generated for this issue yet.'
@@ -762,8 +762,13 @@ window.JurixChat = (function() {
         showTypingIndicator();
         updateSendButton(true);
         
+        if (window.fetch && window.ReadableStream && window.TextDecoder && window.AbortController) {
+            streamMessage(message);
+            return;
+        }
+        
         currentRequest = AJS.$.ajax({
-            url: AJS.contextPath() + '/rest/jurix/1.0/chat',
+            url: AJS.contextPath() + '/plugins/servlet/jurix-async/chat',
             type: 'POST',
             contentType: 'application/json',
             data: JSON.stringify({
@@ -780,17 +785,7 @@ window.JurixChat = (function() {
                     addMessage(response.response, 'assistant');
                 }
                 
-                if (response.articles && response.articles.length > 0) {
-                    addArticlesSummary(response.articles);
-                }
-                
-                if (response.recommendations && response.recommendations.length > 0) {
-                    addQuickActions(response.recommendations);
-                }
-                
-                if (response.predictions && Object.keys(response.predictions).length > 0) {
-                    addPredictiveInsights(response.predictions);
-                }
+                renderStructuredResponse(response);
             },
             error: function(xhr, status, error) {
                 hideTypingIndicator();
@@ -816,6 +811,139 @@ window.JurixChat = (function() {
         });
     }
     
+    // Streams the answer as Server-Sent Events over fetch: tokens are appended to one
+    // assistant bubble as they arrive, and the closing "final" event adds the articles,
+    // recommendations and predictions.
+    function streamMessage(message) {
+        const controller = new AbortController();
+        let bubble = null;
+        let streamedText = '';
+        let finished = false;
+        
+        currentRequest = {
+            abort: function() { controller.abort(); }
+        };
+        
+        function appendToken(text) {
+            if (!bubble) {
+                hideTypingIndicator();
+                bubble = addMessage('', 'assistant');
+            }
+            streamedText += text;
+            bubble.textContent = streamedText;
+            scrollToBottom();
+        }
+        
+        function handleEvent(event, data) {
+            let payload;
+            try {
+                payload = JSON.parse(data);
+            } catch (e) {
+                return;
+            }
+            if (event === 'token') {
+                appendToken(payload.text || '');
+            } else if (event === 'final') {
+                finished = true;
+                if (payload.conversationId) {
+                    conversationId = payload.conversationId;
+                }
+                if (payload.response && payload.response !== streamedText) {
+                    if (bubble) {
+                        streamedText = payload.response;
+                        bubble.textContent = streamedText;
+                    } else {
+                        appendToken(payload.response);
+                    }
+                }
+                renderStructuredResponse(payload);
+            } else if (event === 'error') {
+                finished = true;
+                console.error('Chat stream error:', payload.error);
+                addMessage('Sorry, I encountered an error. Please try again.', 'assistant');
+            }
+        }
+        
+        function finish() {
+            hideTypingIndicator();
+            updateSendButton(false);
+            currentRequest = null;
+        }
+        
+        fetch(AJS.contextPath() + '/plugins/servlet/jurix-async/chat/stream', {
+            method: 'POST',
+            credentials: 'same-origin',
+            headers: {
+                'Content-Type': 'application/json',
+                'Accept': 'text/event-stream'
+            },
+            body: JSON.stringify({
+                query: message,
+                conversationId: conversationId
+            }),
+            signal: controller.signal
+        }).then(function(response) {
+            if (!response.ok) {
+                throw new Error(response.status >= 500 ? 'Server error. Please try again later.'
+                    : 'Sorry, I encountered an error. Please try again.');
+            }
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder('utf-8');
+            let buffer = '';
+            
+            function pump() {
+                return reader.read().then(function(result) {
+                    if (result.done) {
+                        return;
+                    }
+                    buffer += decoder.decode(result.value, { stream: true });
+                    let boundary;
+                    while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                        const frame = buffer.substring(0, boundary);
+                        buffer = buffer.substring(boundary + 2);
+                        let event = 'message';
+                        const data = [];
+                        frame.split('\n').forEach(function(line) {
+                            if (line.indexOf('event:') === 0) {
+                                event = line.substring(6).trim();
+                            } else if (line.indexOf('data:') === 0) {
+                                data.push(line.substring(5).trim());
+                            }
+                        });
+                        handleEvent(event, data.join('\n'));
+                    }
+                    return pump();
+                });
+            }
+            return pump();
+        }).then(function() {
+            finish();
+            if (!finished && !bubble) {
+                addMessage('Sorry, I encountered an error. Please try again.', 'assistant');
+            }
+        }).catch(function(error) {
+            finish();
+            if (error.name !== 'AbortError') {
+                console.error('Chat error:', error);
+                addMessage(error.message || 'Unable to connect. Please check your connection.', 'assistant');
+            }
+        });
+    }
+    
+    function renderStructuredResponse(response) {
+        if (response.articles && response.articles.length > 0) {
+            addArticlesSummary(response.articles);
+        }
+        
+        if (response.recommendations && response.recommendations.length > 0) {
+            addQuickActions(response.recommendations);
+        }
+        
+        if (response.predictions && Object.keys(response.predictions).length > 0) {
+            addPredictiveInsights(response.predictions);
+        }
+    }
+    
     function sendQuickMessage(text) {
         inputField.value = text;
         sendMessage();
@@ -838,6 +966,7 @@ window.JurixChat = (function() {
         }
         
         scrollToBottom();
+        return bubbleDiv.querySelector('p');
     }
     
     function addArticlesSummary(articles) {
@@ -2,12 +2,16 @@ window.SmartSuggestions = (function() {
     'use strict';
     
     const API_BASE = AJS.contextPath() + '/rest/jurix/1.0';
-    const BACKEND_URL = 'http://host.docker.internal:5001';
     let currentIssueKey = null;
     let suggestionsCache = {};
     let isLoadingInProgress = false;
     let retryCount = 0;
     const MAX_RETRIES = 3;
+    // Identifies this page to the server, which cancels our older in-flight requests.
+    const SESSION_ID = Math.random().toString(36).slice(2) + Date.now().toString(36);
+    let requestSeq = 0;
+    let currentRequest = null;
+    let currentRequestIssue = null;
     
     function init() {
         console.log('Initializing SmartSuggestions...');
@@ -19,7 +23,7 @@ window.SmartSuggestions = (function() {
             });
             JIRA.bind(JIRA.Events.ISSUE_REFRESHED, function(e, context) {
                 setTimeout(function() {
-                    checkAndLoadSuggestions();
+                    checkAndLoadSuggestions(true);
                 }, 500);
             });
         }
@@ -72,7 +76,7 @@ window.SmartSuggestions = (function() {
         observer.observe(targetNode, config);
     }
     
-    function checkAndLoadSuggestions() {
+    function checkAndLoadSuggestions(refresh) {
         const issueKey = getIssueKey();
         
         if (!issueKey) {
@@ -82,7 +86,10 @@ window.SmartSuggestions = (function() {
         
         console.log('Loading suggestions for issue:', issueKey);
         currentIssueKey = issueKey;
-        loadSuggestions(issueKey);
+        if (refresh) {
+            delete suggestionsCache[issueKey];
+        }
+        loadSuggestions(issueKey, refresh);
     }
     
     function getIssueKey() {
@@ -116,11 +123,16 @@ window.SmartSuggestions = (function() {
         return null;
     }
     
-    function loadSuggestions(issueKey) {
-        if (isLoadingInProgress) {
+    function loadSuggestions(issueKey, supersede) {
+        if (isLoadingInProgress && currentRequestIssue === issueKey && !supersede) {
             console.log('Load already in progress, skipping');
             return;
         }
+        if (currentRequest) {
+            // The issue changed or was edited: the answer in flight is no longer wanted.
+            currentRequest.abort();
+            currentRequest = null;
+        }
         
         if (suggestionsCache[issueKey]) {
             console.log('Showing cached suggestions for', issueKey);
@@ -129,11 +141,16 @@ window.SmartSuggestions = (function() {
         }
         
         isLoadingInProgress = true;
+        currentRequestIssue = issueKey;
         showLoadingState();
-        AJS.$.ajax({
-            url: API_BASE + '/suggestions/retrieve',
+        const request = AJS.$.ajax({
+            url: AJS.contextPath() + '/plugins/servlet/jurix-async/suggestions/retrieve',
             type: 'POST',
             contentType: 'application/json',
+            headers: {
+                'X-Jurix-Suggest-Session': SESSION_ID,
+                'X-Jurix-Suggest-Seq': String(++requestSeq)
+            },
             data: JSON.stringify({ issue_key: issueKey }),
             timeout: 30000, 
             success: function(response) {
@@ -148,13 +165,21 @@ window.SmartSuggestions = (function() {
                 }
             },
             error: function(xhr, status, error) {
+                if (status === 'abort' || xhr.status === 409) {
+                    console.log('Suggestions request for', issueKey, 'superseded');
+                    return;
+                }
                 console.error('Failed to load suggestions:', error);
                 handleLoadError(issueKey, xhr, status, error);
             },
             complete: function() {
-                isLoadingInProgress = false;
+                if (currentRequest === request) {
+                    currentRequest = null;
+                    isLoadingInProgress = false;
+                }
             }
         });
+        currentRequest = request;
     }
     
     function handleLoadError(issueKey, xhr, status, error) {
@@ -974,7 +999,7 @@ window.SmartSuggestions = (function() {
             helpful: helpful
         };
         AJS.$.ajax({
-            url: BACKEND_URL + '/api/article-feedback',
+            url: API_BASE + '/suggestions/feedback',
             type: 'POST',
             contentType: 'application/json',
             data: JSON.stringify(feedbackData),
@@ -0,0 +1,127 @@
+package com.jurix.ai.listener;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jurix.ai.api.BackendGateway;
+import com.jurix.ai.config.JurixConfiguration;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UpdateNotificationBatcherTest {
+    private static final int EVENTS = 10_000;
+    private static final String[] PROJECTS = {"ALPHA", "BETA", "GAMMA", "DELTA"};
+    private static final int BATCH_SIZE = 200;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private BackendGateway gateway;
+    private UpdateNotificationBatcher batcher;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger nonArrayBodies = new AtomicInteger();
+    private final AtomicInteger outOfOrder = new AtomicInteger();
+    private final Map<Integer, Boolean> received = new ConcurrentHashMap<>();
+    private final Map<String, Integer> lastSequenceByProject = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/notify-update", this::handleNotify);
+        serverThreads = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverThreads);
+        server.start();
+
+        String backendUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        JurixConfiguration configuration = new JurixConfiguration(null, null) {
+            @Override
+            public String getBackendUrl() {
+                return backendUrl;
+            }
+        };
+        gateway = new BackendGateway(configuration);
+        batcher = new UpdateNotificationBatcher(gateway, BATCH_SIZE, 50, EVENTS);
+    }
+
+    @After
+    public void tearDown() {
+        batcher.shutdown();
+        gateway.destroy();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    public void batchesNotificationsIntoFewRequests() throws InterruptedException {
+        for (int sequence = 0; sequence < EVENTS; sequence++) {
+            String projectKey = PROJECTS[sequence % PROJECTS.length];
+            Map<String, Object> notification = new HashMap<>();
+            notification.put("project_key", projectKey);
+            notification.put("issue_key", projectKey + "-" + sequence);
+            notification.put("sequence", sequence);
+            batcher.add(projectKey, notification);
+        }
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (received.size() < EVENTS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals("every notification reaches the backend", EVENTS, received.size());
+        assertEquals("every request body is a JSON array", 0, nonArrayBodies.get());
+        assertEquals("notifications for a project arrive in order", 0, outOfOrder.get());
+        assertTrue("expected a small fraction of " + EVENTS + " requests but got " + requests.get(),
+                   requests.get() <= EVENTS / 20);
+        assertEquals("no notification is dropped", 0L, batcher.getMetrics().get("dropped"));
+    }
+
+    private void handleNotify(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonElement parsed = JsonParser.parseReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            if (!parsed.isJsonArray()) {
+                nonArrayBodies.incrementAndGet();
+            } else {
+                JsonArray batch = parsed.getAsJsonArray();
+                for (JsonElement element : batch) {
+                    JsonObject notification = element.getAsJsonObject();
+                    int sequence = notification.get("sequence").getAsInt();
+                    String projectKey = notification.get("project_key").getAsString();
+                    Integer previous = lastSequenceByProject.put(projectKey, sequence);
+                    if (previous != null && previous > sequence) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    received.put(sequence, Boolean.TRUE);
+                }
+            }
+        }
+        byte[] response = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
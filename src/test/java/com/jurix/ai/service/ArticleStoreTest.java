@@ -0,0 +1,51 @@
+package com.jurix.ai.service;
+
+import com.jurix.ai.ao.GeneratedArticle;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArticleStoreTest {
+
+    @Test
+    public void rejectsAWriteFencedByANewerLeaseFromTheSameStore() {
+        GeneratedArticle row = row(42L, "database");
+
+        assertTrue(ArticleStore.isNewerFence(row, lease(41, "database")));
+        assertFalse(ArticleStore.isNewerFence(row, lease(42, "database")));
+        assertFalse(ArticleStore.isNewerFence(row, lease(43, "database")));
+    }
+
+    @Test
+    public void doesNotCompareTokensAcrossStores() {
+        // Redis and database tokens come from unrelated counters.
+        assertFalse(ArticleStore.isNewerFence(row(42L, "database"), lease(1, "redis")));
+        assertFalse(ArticleStore.isNewerFence(row(42L, "redis"), lease(1, "database")));
+    }
+
+    @Test
+    public void acceptsAnyLeaseForARowWrittenWithoutOne() {
+        assertFalse(ArticleStore.isNewerFence(row(null, null), lease(1, "database")));
+    }
+
+    private static GenerationLease lease(long token, String store) {
+        return new GenerationLease("ISSUE-1", token, "node-a", System.currentTimeMillis() + 60_000, store);
+    }
+
+    private static GeneratedArticle row(Long fenceToken, String fenceStore) {
+        return (GeneratedArticle) Proxy.newProxyInstance(ArticleStoreTest.class.getClassLoader(),
+            new Class<?>[] {GeneratedArticle.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getFenceToken":
+                        return fenceToken;
+                    case "getFenceStore":
+                        return fenceStore;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
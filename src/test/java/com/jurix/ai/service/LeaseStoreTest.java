@@ -0,0 +1,289 @@
+package com.jurix.ai.service;
+
+import com.atlassian.activeobjects.external.ActiveObjects;
+import com.jurix.ai.ao.LeaseRecord;
+import net.java.ao.DBParam;
+import net.java.ao.Query;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.params.SetParams;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LeaseStoreTest {
+    private static final int CONTENDERS = 8;
+    private static final long TTL_MS = 60_000;
+
+    private ExecutorService threads;
+
+    @Before
+    public void setUp() {
+        threads = Executors.newFixedThreadPool(CONTENDERS);
+    }
+
+    @After
+    public void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void databaseStoreGrantsOneLeaseUnderContention() throws Exception {
+        assertOneWinner(new ActiveObjectsLeaseStore(new LeaseTable().activeObjects()));
+    }
+
+    @Test
+    public void redisStoreGrantsOneLeaseUnderContention() throws Exception {
+        assertOneWinner(new RedisLeaseStore(new FakeRedis().pool()));
+    }
+
+    @Test
+    public void databaseStoreRejectsAnExpiredHolder() throws Exception {
+        LeaseTable table = new LeaseTable();
+        ActiveObjectsLeaseStore store = new ActiveObjectsLeaseStore(table.activeObjects());
+
+        GenerationLease stale = store.tryAcquire("ISSUE-1", "node-a", 1);
+        assertNotNull(stale);
+        Thread.sleep(5);
+        GenerationLease current = store.tryAcquire("ISSUE-1", "node-b", TTL_MS);
+        assertNotNull("an expired lease must not block the key", current);
+
+        assertTrue(current.getToken() > stale.getToken());
+        assertFalse(store.isCurrent(stale));
+        assertFalse("a stale holder must not release its successor", store.release(stale));
+        assertTrue(store.isCurrent(current));
+        assertTrue(store.release(current));
+        assertFalse(store.isHeld("ISSUE-1"));
+    }
+
+    @Test
+    public void redisStoreRejectsAnExpiredHolder() {
+        FakeRedis redis = new FakeRedis();
+        RedisLeaseStore store = new RedisLeaseStore(redis.pool());
+
+        GenerationLease stale = store.tryAcquire("ISSUE-1", "node-a", TTL_MS);
+        assertNotNull(stale);
+        assertNull(store.tryAcquire("ISSUE-1", "node-b", TTL_MS));
+        redis.expire(RedisLeaseStore.KEY_PREFIX + "ISSUE-1");
+        GenerationLease current = store.tryAcquire("ISSUE-1", "node-b", TTL_MS);
+        assertNotNull("an expired lease must not block the key", current);
+
+        assertTrue(current.getToken() > stale.getToken());
+        assertFalse(store.isCurrent(stale));
+        assertFalse("a stale holder must not release its successor", store.release(stale));
+        assertTrue(store.isCurrent(current));
+        assertTrue(store.release(current));
+        assertFalse(store.isHeld("ISSUE-1"));
+    }
+
+    private void assertOneWinner(LeaseStore store) throws Exception {
+        for (int round = 0; round < 20; round++) {
+            String key = "ISSUE-" + round;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<GenerationLease>> attempts = new ArrayList<>();
+            for (int i = 0; i < CONTENDERS; i++) {
+                String owner = "node-" + i;
+                attempts.add(threads.submit((Callable<GenerationLease>) () -> {
+                    start.await();
+                    return store.tryAcquire(key, owner, TTL_MS);
+                }));
+            }
+            start.countDown();
+
+            List<GenerationLease> granted = new ArrayList<>();
+            for (Future<GenerationLease> attempt : attempts) {
+                GenerationLease lease = attempt.get(10, TimeUnit.SECONDS);
+                if (lease != null) {
+                    granted.add(lease);
+                }
+            }
+            assertEquals("leases granted for " + key, 1, granted.size());
+            GenerationLease winner = granted.get(0);
+            assertTrue(store.isHeld(key));
+            assertTrue(store.isCurrent(winner));
+
+            assertTrue(store.release(winner));
+            GenerationLease next = store.tryAcquire(key, "node-next", TTL_MS);
+            assertNotNull("a released key can be acquired again", next);
+            assertTrue("fencing tokens must increase", next.getToken() > winner.getToken());
+        }
+    }
+
+    /**
+     * The AI_LEASE table behind {@link ActiveObjectsLeaseStore}, with its unique LEASE_KEY,
+     * answering the statements the store issues.
+     */
+    private static class LeaseTable {
+        private final Map<Integer, Object[]> rows = new HashMap<>();
+        private int nextId = 1;
+
+        ActiveObjects activeObjects() {
+            return (ActiveObjects) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ActiveObjects.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "create":
+                            return create((DBParam[]) args[1]);
+                        case "deleteWithSQL":
+                            return delete((String) args[1], (Object[]) args[2]);
+                        case "count":
+                            Query query = (Query) args[1];
+                            return count(query.getWhereClause(), query.getWhereParams());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        }
+
+        private synchronized LeaseRecord create(DBParam[] params) {
+            Map<String, Object> values = new HashMap<>();
+            for (DBParam param : params) {
+                values.put(param.getField(), param.getValue());
+            }
+            String key = (String) values.get("LEASE_KEY");
+            for (Object[] row : rows.values()) {
+                if (row[0].equals(key)) {
+                    throw new IllegalStateException("Unique constraint violated for LEASE_KEY " + key);
+                }
+            }
+            int id = nextId++;
+            rows.put(id, new Object[] {key, values.get("EXPIRES_AT")});
+            return (LeaseRecord) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {LeaseRecord.class}, (proxy, method, args) -> {
+                    if ("getID".equals(method.getName())) {
+                        return id;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        }
+
+        private synchronized int delete(String criteria, Object[] params) {
+            int deleted = 0;
+            for (Integer id : new ArrayList<>(rows.keySet())) {
+                Object[] row = rows.get(id);
+                boolean matches;
+                switch (criteria) {
+                    case "LEASE_KEY = ? AND EXPIRES_AT < ?":
+                        matches = row[0].equals(params[0]) && (Long) row[1] < (Long) params[1];
+                        break;
+                    case "LEASE_KEY = ? AND ID = ?":
+                        matches = row[0].equals(params[0]) && id.equals(params[1]);
+                        break;
+                    case "EXPIRES_AT < ?":
+                        matches = (Long) row[1] < (Long) params[0];
+                        break;
+                    default:
+                        throw new UnsupportedOperationException(criteria);
+                }
+                if (matches) {
+                    rows.remove(id);
+                    deleted++;
+                }
+            }
+            return deleted;
+        }
+
+        private synchronized int count(String criteria, Object[] params) {
+            int count = 0;
+            for (Map.Entry<Integer, Object[]> entry : rows.entrySet()) {
+                Object[] row = entry.getValue();
+                boolean matches;
+                switch (criteria) {
+                    case "LEASE_KEY = ? AND EXPIRES_AT >= ?":
+                        matches = row[0].equals(params[0]) && (Long) row[1] >= (Long) params[1];
+                        break;
+                    case "ID = ? AND LEASE_KEY = ? AND EXPIRES_AT >= ?":
+                        matches = entry.getKey().equals(params[0]) && row[0].equals(params[1])
+                            && (Long) row[1] >= (Long) params[2];
+                        break;
+                    default:
+                        throw new UnsupportedOperationException(criteria);
+                }
+                if (matches) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The Redis commands {@link RedisLeaseStore} uses, on an in-memory map. Every SET is
+     * treated as SET NX, which is how the store always calls it; expiry is driven by the test.
+     */
+    private static class FakeRedis {
+        private final Map<String, String> values = new HashMap<>();
+        private final AtomicLong counter = new AtomicLong();
+
+        JedisPool pool() {
+            return new JedisPool() {
+                @Override
+                public Jedis getResource() {
+                    return new FakeJedis();
+                }
+            };
+        }
+
+        synchronized void expire(String key) {
+            values.remove(key);
+        }
+
+        private class FakeJedis extends Jedis {
+            @Override
+            public long incr(String key) {
+                return counter.incrementAndGet();
+            }
+
+            @Override
+            public String set(String key, String value, SetParams params) {
+                synchronized (FakeRedis.this) {
+                    return values.putIfAbsent(key, value) == null ? "OK" : null;
+                }
+            }
+
+            @Override
+            public String get(String key) {
+                synchronized (FakeRedis.this) {
+                    return values.get(key);
+                }
+            }
+
+            @Override
+            public boolean exists(String key) {
+                synchronized (FakeRedis.this) {
+                    return values.containsKey(key);
+                }
+            }
+
+            @Override
+            public Object eval(String script, List<String> keys, List<String> args) {
+                // The release script: delete only if the value still matches.
+                synchronized (FakeRedis.this) {
+                    return values.remove(keys.get(0), args.get(0)) ? 1L : 0L;
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        }
+    }
+}
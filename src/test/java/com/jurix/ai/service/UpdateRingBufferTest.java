@@ -0,0 +1,224 @@
+package com.jurix.ai.service;
+
+import com.jurix.ai.service.DashboardUpdateService.UpdateEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UpdateRingBufferTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 2;
+    private static final int EVENTS_PER_WRITER = 5_000;
+
+    private ExecutorService threads;
+    // Shared by all writers, so concurrent adds arrive slightly out of timestamp order.
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Before
+    public void setUp() {
+        threads = Executors.newFixedThreadPool(WRITERS + READERS);
+    }
+
+    @After
+    public void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void readersNeverSeeGapsOrReorderingWhileWritersAdd() throws Exception {
+        UpdateRingBuffer buffer = new UpdateRingBuffer(WRITERS * EVENTS_PER_WRITER);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> writers = startWriters(buffer, start);
+        List<Future<Poller>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(threads.submit(() -> {
+                start.await();
+                Poller poller = new Poller();
+                while (writing.get()) {
+                    List<UpdateEvent> snapshot = buffer.snapshot();
+                    assertNewestFirst(snapshot, Long.MIN_VALUE);
+                    assertContiguousPerWriter(snapshot);
+                    poller.poll(buffer);
+                }
+                return poller;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+
+        List<UpdateEvent> all = buffer.snapshot();
+        assertEquals(WRITERS * EVENTS_PER_WRITER, all.size());
+        assertNewestFirst(all, Long.MIN_VALUE);
+        Map<Integer, Integer> counts = assertContiguousPerWriter(all);
+        for (int w = 0; w < WRITERS; w++) {
+            assertEquals("events lost for writer " + w, EVENTS_PER_WRITER, (int) counts.get(w));
+        }
+
+        for (Future<Poller> reader : readers) {
+            Poller poller = reader.get(30, TimeUnit.SECONDS);
+            assertTrue("reader made no progress", poller.polls > 0);
+            poller.poll(buffer);
+            for (UpdateEvent event : all) {
+                // Timestamps are clamped, so an event may share the timestamp a poll asked
+                // "since"; anything newer than that must reach the poller eventually.
+                if (!poller.seen.contains(event.issueKey) && !poller.sinceValues.contains(event.timestamp)) {
+                    fail("poller missed " + event.issueKey + " at " + event.timestamp);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void keepsOnlyTheNewestEventsWhenWritersWrapAround() throws Exception {
+        int capacity = 100;
+        UpdateRingBuffer buffer = new UpdateRingBuffer(capacity);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> writers = startWriters(buffer, start);
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+
+        List<UpdateEvent> retained = buffer.snapshot();
+        assertEquals(capacity, retained.size());
+        assertNewestFirst(retained, Long.MIN_VALUE);
+        Map<Integer, Integer> newest = new HashMap<>();
+        for (UpdateEvent event : retained) {
+            newest.putIfAbsent(writer(event), number(event));
+        }
+        for (int w : newest.keySet()) {
+            // A writer's last event is the newest of its own, so it can never have aged out first.
+            assertEquals(EVENTS_PER_WRITER - 1, (int) newest.get(w));
+        }
+        assertTrue(retained.get(retained.size() - 1).timestamp > 1_000_000);
+    }
+
+    @Test
+    public void resumesAfterAnEventIdEvenWhenTimestampsRepeat() {
+        UpdateRingBuffer buffer = new UpdateRingBuffer(10);
+        // Out-of-order timestamps are clamped, so these three share one timestamp.
+        UpdateEvent first = buffer.add(new UpdateEvent("A-1", "Open", "issue_updated", 500));
+        UpdateEvent second = buffer.add(new UpdateEvent("A-2", "Open", "issue_updated", 400));
+        UpdateEvent third = buffer.add(new UpdateEvent("A-3", "Open", "issue_updated", 300));
+        assertEquals(first.timestamp, third.timestamp);
+        assertNotEquals(first.id, second.id);
+
+        List<UpdateEvent> after = buffer.after(first.id);
+        assertEquals(2, after.size());
+        assertEquals("A-3", after.get(0).issueKey);
+        assertEquals("A-2", after.get(1).issueKey);
+        assertTrue(buffer.after(third.id).isEmpty());
+        assertNull(buffer.after("otherepoch-0"));
+        assertNull(buffer.after("1700000000000"));
+    }
+
+    private List<Future<?>> startWriters(UpdateRingBuffer buffer, CountDownLatch start) {
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(threads.submit(() -> {
+                start.await();
+                for (int n = 0; n < EVENTS_PER_WRITER; n++) {
+                    buffer.add(new UpdateEvent("W" + writer + "-" + n, "In Progress", "issue_updated",
+                        clock.incrementAndGet()));
+                }
+                return null;
+            }));
+        }
+        return writers;
+    }
+
+    /**
+     * Polls like a dashboard client: asks for updates since the newest one it has seen.
+     */
+    private static class Poller {
+        final Set<String> seen = new HashSet<>();
+        final Set<Long> sinceValues = new HashSet<>();
+        long since = Long.MIN_VALUE;
+        int polls;
+
+        void poll(UpdateRingBuffer buffer) {
+            sinceValues.add(since);
+            List<UpdateEvent> recent = buffer.since(since);
+            assertNewestFirst(recent, since);
+            for (UpdateEvent event : recent) {
+                seen.add(event.issueKey);
+            }
+            if (!recent.isEmpty()) {
+                since = recent.get(0).timestamp;
+            }
+            polls++;
+        }
+    }
+
+    private static void assertNewestFirst(List<UpdateEvent> events, long since) {
+        long previous = Long.MAX_VALUE;
+        for (UpdateEvent event : events) {
+            if (event.timestamp <= since) {
+                fail("event " + event.issueKey + " at " + event.timestamp + " is not after " + since);
+            }
+            if (event.timestamp > previous) {
+                fail("event " + event.issueKey + " at " + event.timestamp + " is newer than the one before it");
+            }
+            previous = event.timestamp;
+        }
+    }
+
+    /**
+     * Every writer's events must appear newest first and without holes: a reader that sees a
+     * writer's n-th event must also see all of its earlier ones.
+     */
+    private static Map<Integer, Integer> assertContiguousPerWriter(List<UpdateEvent> events) {
+        Map<Integer, Integer> next = new HashMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (UpdateEvent event : events) {
+            int writer = writer(event);
+            int number = number(event);
+            Integer expected = next.get(writer);
+            if (expected != null && number != expected) {
+                fail("writer " + writer + " event " + number + " follows a gap, expected " + expected);
+            }
+            next.put(writer, number - 1);
+            counts.merge(writer, 1, Integer::sum);
+        }
+        for (Map.Entry<Integer, Integer> entry : next.entrySet()) {
+            assertEquals("oldest event of writer " + entry.getKey() + " missing", -1, (int) entry.getValue());
+        }
+        return counts;
+    }
+
+    private static int writer(UpdateEvent event) {
+        return Integer.parseInt(event.issueKey.substring(1, event.issueKey.indexOf('-')));
+    }
+
+    private static int number(UpdateEvent event) {
+        return Integer.parseInt(event.issueKey.substring(event.issueKey.indexOf('-') + 1));
+    }
+}